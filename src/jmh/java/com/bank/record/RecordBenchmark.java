@@ -0,0 +1,67 @@
+package com.bank.record;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Flyweight records against Java serialization of an equivalent object: write one saga
+// entry and read it back. Run with -prof gc to compare allocation per operation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordBenchmark {
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RecordLayout.RECORD_LENGTH * 1024);
+    private final RecordWriter writer = new RecordWriter();
+    private final RecordReader reader = new RecordReader();
+    private int i;
+
+    @Benchmark
+    public long flyweight() {
+        int offset = RecordLayout.offsetOf(++i & 1023);
+        writer.wrap(buffer, offset)
+                .kind(RecordKind.SAGA)
+                .id("SAGA-001")
+                .step(i)
+                .state(1)
+                .startTime(i)
+                .updateTime(i + 1);
+        reader.wrap(buffer, offset);
+        return reader.step() + reader.state() + reader.updateTime() + (reader.idEquals("SAGA-001") ? 1 : 0);
+    }
+
+    @Benchmark
+    public long serialization() throws IOException, ClassNotFoundException {
+        ++i;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new SagaEntry("SAGA-001", i, 1, i, i + 1));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            SagaEntry entry = (SagaEntry) in.readObject();
+            return entry.step + entry.state + entry.updateTime + (entry.sagaId.equals("SAGA-001") ? 1 : 0);
+        }
+    }
+
+    private static class SagaEntry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String sagaId;
+        private final int step;
+        private final int state;
+        private final long startTime;
+        private final long updateTime;
+
+        SagaEntry(String sagaId, int step, int state, long startTime, long updateTime) {
+            this.sagaId = sagaId;
+            this.step = step;
+            this.state = state;
+            this.startTime = startTime;
+            this.updateTime = updateTime;
+        }
+    }
+}
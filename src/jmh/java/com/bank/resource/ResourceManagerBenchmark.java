@@ -0,0 +1,79 @@
+package com.bank.resource;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contention on one participant: each transaction reads and writes two Zipfian-chosen
+// keys, then prepares and commits. The auxiliary counters report commits and deadlock
+// aborts per second next to the throughput.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ResourceManagerBenchmark {
+    @Param({"1000", "100000"})
+    private int keys;
+
+    @Param({"0.5", "0.99"})
+    private double theta;
+
+    @Param({"WAIT_DIE", "WOUND_WAIT"})
+    private DeadlockPolicy policy;
+
+    private ResourceManager manager;
+    private final AtomicLong txIds = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        manager = new ResourceManager("bench", 1024, policy, PrepareLog.NONE);
+        Transaction load = manager.begin("load");
+        for (int i = 0; i < keys; i++) {
+            load.write("key-" + i, "0");
+        }
+        manager.prepare("load");
+        manager.commit("load");
+    }
+
+    @State(Scope.Thread)
+    public static class Workload {
+        private ZipfianGenerator generator;
+
+        @Setup
+        public void setUp(ResourceManagerBenchmark benchmark) {
+            generator = new ZipfianGenerator(benchmark.keys, benchmark.theta, Thread.currentThread().getId());
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long committed;
+        public long aborted;
+    }
+
+    @Benchmark
+    public void transfer(Workload workload, Outcomes outcomes) {
+        String from = workload.generator.nextKey();
+        String to = workload.generator.nextKey();
+        String txId = "TX-" + txIds.incrementAndGet();
+        try {
+            Transaction tx = manager.begin(txId);
+            int amount = Integer.parseInt(tx.read(from));
+            tx.write(from, Integer.toString(amount - 1));
+            tx.write(to, Integer.toString(Integer.parseInt(tx.read(to)) + 1));
+            if (manager.prepare(txId)) {
+                manager.commit(txId);
+                outcomes.committed++;
+                return;
+            }
+        } catch (TransactionAbortedException e) {
+            manager.abort(txId);
+        }
+        outcomes.aborted++;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.saga;
+
+import com.bank.Quiet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Sequential saga engine. One operation runs `concurrency` sagas side by side to completion,
+// so sagas/s = ops/s * concurrency. With latency the steps wait on the shared ServiceTimer.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SagaManagerBenchmark {
+    @Param({"1", "3", "10"})
+    private int steps;
+
+    @Param({"1", "100", "1000"})
+    private int concurrency;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private SagaManager manager;
+
+    @Setup
+    public void setUp() {
+        Quiet.mute();
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            services.add(new SimulatedService(latencyMicros, context -> false));
+        }
+        manager = new SagaManager(services);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Quiet.restore();
+    }
+
+    @Benchmark
+    public void execute() {
+        CompletableFuture<?>[] sagas = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagas[i] = manager.executeSaga("SAGA-" + i);
+        }
+        CompletableFuture.allOf(sagas).join();
+    }
+
+    @Benchmark
+    public void compensate() {
+        CompletableFuture<?>[] sagas = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagas[i] = manager.compensateSaga("SAGA-" + i);
+        }
+        CompletableFuture.allOf(sagas).join();
+    }
+}
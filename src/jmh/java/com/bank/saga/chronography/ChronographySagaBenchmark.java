@@ -0,0 +1,74 @@
+package com.bank.saga.chronography;
+
+import com.bank.Quiet;
+import com.bank.saga.SimulatedService;
+import com.bank.saga.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Choreographed saga engine, including its SagaChronography bookkeeping. Saga ids are
+// reused across operations so the chronography stays at `concurrency` entries.
+// One operation = `concurrency` sagas.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChronographySagaBenchmark {
+    @Param({"1", "3", "10"})
+    private int steps;
+
+    @Param({"1", "100", "1000"})
+    private int concurrency;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private SagaChronography chronography;
+    private SagaManager manager;
+    private String[] sagaIds;
+
+    @Setup
+    public void setUp() {
+        Quiet.mute();
+        chronography = new SagaChronography(600);
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            services.add(new SimulatedService(latencyMicros, context -> false));
+        }
+        manager = new SagaManager(chronography, services);
+        sagaIds = new String[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagaIds[i] = "SAGA-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        chronography.shutdown();
+        Quiet.restore();
+    }
+
+    @Benchmark
+    public void execute() {
+        CompletableFuture<?>[] sagas = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagas[i] = manager.executeSaga(sagaIds[i]);
+        }
+        CompletableFuture.allOf(sagas).join();
+    }
+
+    @Benchmark
+    public void compensate() {
+        CompletableFuture<?>[] sagas = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagas[i] = manager.compensateSaga(sagaIds[i]);
+        }
+        CompletableFuture.allOf(sagas).join();
+    }
+}
@@ -0,0 +1,95 @@
+package com.bank.saga.chronography;
+
+import com.bank.Quiet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// SagaChronography with millions of sagas: status updates and lookups on random sagas,
+// a cleanup sweep that finds nothing old enough to remove (a pure scan), and a sweep over
+// a fresh map where a share of the sagas has expired and is actually removed.
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class SagaChronographyBenchmark {
+    @Param({"1000000", "3000000"})
+    private int entries;
+
+    private SagaChronography chronography;
+    private String[] sagaIds;
+
+    @Setup
+    public void setUp() {
+        Quiet.mute();
+        chronography = new SagaChronography(600);
+        sagaIds = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            sagaIds[i] = "SAGA-" + i;
+            chronography.registerSaga(sagaIds[i], "Saga");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        chronography.shutdown();
+        Quiet.restore();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void update() {
+        String sagaId = sagaIds[ThreadLocalRandom.current().nextInt(entries)];
+        chronography.updateSagaStatus(sagaId, "OrderService", SagaChronography.SagaStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object get() {
+        return chronography.getSagaEvent(sagaIds[ThreadLocalRandom.current().nextInt(entries)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void cleanup() {
+        chronography.cleanupOldSagas();
+    }
+
+    // Removal empties the map, so every sweep gets a freshly built one
+    @State(Scope.Thread)
+    public static class Expiring {
+        @Param({"10", "50"})
+        private int expiredPercent;
+
+        private SagaChronography chronography;
+
+        @Setup(Level.Invocation)
+        public void setUp(SagaChronographyBenchmark benchmark) {
+            chronography = new SagaChronography(600);
+            long expired = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(601);
+            long live = System.currentTimeMillis();
+            for (int i = 0; i < benchmark.entries; i++) {
+                boolean old = i % 100 < expiredPercent;
+                chronography.registerSaga(benchmark.sagaIds[i], "Saga", old ? expired : live);
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            chronography.shutdown();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public void cleanupExpired(Expiring expiring) {
+        expiring.chronography.cleanupOldSagas();
+    }
+}
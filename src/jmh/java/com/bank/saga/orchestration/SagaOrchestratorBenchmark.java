@@ -0,0 +1,71 @@
+package com.bank.saga.orchestration;
+
+import com.bank.Quiet;
+import com.bank.saga.SimulatedService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Orchestrated saga engine. execute: every step succeeds. compensate: the last step fails,
+// so every step runs forward and is then compensated. One operation = `concurrency` sagas.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SagaOrchestratorBenchmark {
+    @Param({"1", "3", "10"})
+    private int steps;
+
+    @Param({"1", "100", "1000"})
+    private int concurrency;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private SagaOrchestrator orchestrator;
+    private List<String> succeeding;
+    private List<String> failingLast;
+
+    @Setup
+    public void setUp() {
+        Quiet.mute();
+        orchestrator = new SagaOrchestrator(Runtime.getRuntime().availableProcessors());
+        succeeding = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            orchestrator.registerService("step-" + i, new SagaOrchestrator.ServiceInfo("Step" + i, new SimulatedService(latencyMicros, context -> false)));
+            succeeding.add("step-" + i);
+        }
+        orchestrator.registerService("failing", new SagaOrchestrator.ServiceInfo("Failing", new SimulatedService(latencyMicros, context -> true)));
+        failingLast = new ArrayList<>(succeeding.subList(0, steps - 1));
+        failingLast.add("failing");
+    }
+
+    @TearDown
+    public void tearDown() {
+        orchestrator.shutdown();
+        Quiet.restore();
+    }
+
+    @Benchmark
+    public void execute() {
+        run(succeeding);
+    }
+
+    @Benchmark
+    public void compensate() {
+        run(failingLast);
+    }
+
+    private void run(List<String> services) {
+        CompletableFuture<?>[] sagas = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sagas[i] = orchestrator.orchestrateSaga("SAGA-" + i, services).exceptionally(ex -> null);
+        }
+        CompletableFuture.allOf(sagas).join();
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.threephasecommit;
+
+import com.bank.Quiet;
+import com.bank.transport.SimulatedNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Same shape as TwoPhaseCommitBenchmark, with the extra pre-commit round
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+// Qualified: the protocol package has its own State enum
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class ThreePhaseCommitBenchmark {
+    @Param({"2", "4", "8", "16"})
+    private int participants;
+
+    private Coordinator coordinator;
+    private SimulatedNetwork network;
+    private NetworkCoordinator networkCoordinator;
+    private long txCounter;
+
+    @Setup
+    public void setUp() {
+        Quiet.mute();
+        coordinator = new Coordinator();
+        network = new SimulatedNetwork(42);
+        networkCoordinator = new NetworkCoordinator(0, network, 1000);
+        for (int i = 1; i <= participants; i++) {
+            coordinator.addParticipant(new Participant("P" + i));
+            new ParticipantNode(i, new Participant("P" + i), network);
+            networkCoordinator.addParticipant(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        networkCoordinator.shutdown();
+        network.close();
+        Quiet.restore();
+    }
+
+    @Benchmark
+    public boolean direct() {
+        return coordinator.prepare() && coordinator.preparePreparing() && coordinator.commit();
+    }
+
+    @Benchmark
+    public boolean network() {
+        return networkCoordinator.commit("TX-" + ++txCounter).join();
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// The engines log every step to System.out. Benchmarks and the load generator swap it for
+// a sink so they measure the engines rather than the terminal; building the log strings is
+// still counted. System.err is left alone so real failures stay visible.
+public final class Quiet {
+    private static final PrintStream SINK = new PrintStream(OutputStream.nullOutputStream());
+    private static PrintStream out;
+
+    private Quiet() {
+    }
+
+    public static synchronized void mute() {
+        if (out == null) {
+            out = System.out;
+            System.setOut(SINK);
+        }
+    }
+
+    public static synchronized void restore() {
+        if (out != null) {
+            System.setOut(out);
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.loadgen;
+
+import com.bank.resource.DeadlockPolicy;
+import com.bank.resource.PrepareLog;
+import com.bank.resource.ResourceManager;
+import com.bank.transport.LatencyDistribution;
+import com.bank.transport.SimulatedNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Base for the 2PC and 3PC workloads: a coordinator and its participants on a
+// SimulatedNetwork, each participant backed by a ResourceManager. Every transaction is
+// begun on each resource manager before the commit starts; an injected failure skips the
+// first one, which then votes no exactly as a participant that lost its work would.
+public abstract class CommitProtocolWorkload implements Workload {
+    protected final SimulatedNetwork network;
+    protected final List<ResourceManager> resources = new ArrayList<>();
+
+    protected CommitProtocolWorkload(int participants, long networkLatencyMicros) {
+        network = new SimulatedNetwork(42);
+        network.setLatency(LatencyDistribution.constant(networkLatencyMicros));
+        for (int i = 1; i <= participants; i++) {
+            resources.add(new ResourceManager("P" + i, 16, DeadlockPolicy.WAIT_DIE, PrepareLog.NONE));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> run(long sequence, boolean injectFailure) {
+        String txId = "TX-" + sequence;
+        for (int i = injectFailure ? 1 : 0; i < resources.size(); i++) {
+            resources.get(i).begin(txId);
+        }
+        return commit(txId);
+    }
+
+    protected abstract CompletableFuture<Boolean> commit(String txId);
+
+    @Override
+    public void close() {
+        network.close();
+    }
+}
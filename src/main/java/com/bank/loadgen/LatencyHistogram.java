@@ -0,0 +1,69 @@
+package com.bank.loadgen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram of nanosecond latencies, safe to record from many threads.
+// Values below 128 ns are exact; above that each power of two is split into 64 buckets,
+// so a reported percentile is within 1.6% of the recorded value.
+public class LatencyHistogram {
+    private static final int LINEAR = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + 57 * SUB_BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100)
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValueAt(i);
+            }
+        }
+        return highestValueAt(counts.length() - 1);
+    }
+
+    public long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return highestValueAt(i);
+            }
+        }
+        return 0;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValueAt(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long mantissa = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,183 @@
+package com.bank.loadgen;
+
+import com.bank.Quiet;
+import com.bank.saga.SequentialSagaWorkload;
+import com.bank.saga.chronography.ChoreographedSagaWorkload;
+import com.bank.saga.orchestration.OrchestratedSagaWorkload;
+import com.bank.threephasecommit.ThreePhaseCommitWorkload;
+import com.bank.twophasecommit.TwoPhaseCommitWorkload;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load generator: requests are issued at a fixed arrival rate whether or not the
+// engine keeps up, and latency is measured from the time each request was scheduled to start.
+// A closed-loop driver that waits for a slow response before sending the next request
+// silently skips the requests that would have queued behind it (coordinated omission); the
+// "corrected" figures include that queueing, the "service" figures show what the engine
+// itself took once a request was actually sent.
+//
+//   ./gradlew loadgen -PloadArgs="--engine 2pc --rate 2000 --duration 10 --failure-rate 0.05"
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        String engine = options.getOrDefault("engine", "2pc");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "10"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "2"));
+        double failureRate = Double.parseDouble(options.getOrDefault("failure-rate", "0"));
+        int participants = Integer.parseInt(options.getOrDefault("participants", "3"));
+        int steps = Integer.parseInt(options.getOrDefault("steps", "3"));
+        long latencyMicros = Long.parseLong(options.getOrDefault("latency-micros", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Expected rate > 0, duration > 0, warmup >= 0 and 0 <= failure-rate <= 1");
+        }
+
+        System.out.printf("engine=%s rate=%.0f/s duration=%ds warmup=%ds failure-rate=%.3f participants=%d steps=%d latency=%dus%n",
+                engine, rate, durationSeconds, warmupSeconds, failureRate, participants, steps, latencyMicros);
+
+        LatencyHistogram corrected = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+        AtomicLong committed = new AtomicLong();
+        AtomicLong aborted = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        // Measured requests not yet finished: sequence -> {intended start, actual send}
+        Map<Long, long[]> outstanding = new ConcurrentHashMap<>();
+        LongAccumulator lastCompletion = new LongAccumulator(Math::max, 0);
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long total = (long) (rate * (warmupSeconds + durationSeconds));
+        long issued = 0;
+        long unfinished = 0;
+        Random random = new Random(seed);
+
+        Quiet.mute();
+        Workload workload = create(engine, participants, steps, latencyMicros);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        try {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * interval;
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                long sequence = i;
+                boolean measured = intended >= measureFrom;
+                if (measured) {
+                    outstanding.put(sequence, new long[]{intended, now});
+                }
+                workload.run(i, random.nextDouble() < failureRate).whenComplete((outcome, ex) -> {
+                    // Whoever removes the entry records it: this callback or the drain deadline
+                    long[] times = measured ? outstanding.remove(sequence) : null;
+                    if (times == null) {
+                        return;
+                    }
+                    long done = System.nanoTime();
+                    corrected.record(done - times[0]);
+                    service.record(done - times[1]);
+                    if (ex != null) {
+                        errors.incrementAndGet();
+                    } else if (outcome) {
+                        committed.incrementAndGet();
+                    } else {
+                        aborted.incrementAndGet();
+                    }
+                    lastCompletion.accumulate(done);
+                });
+                issued++;
+            }
+            long issueEnd = System.nanoTime();
+            long drainDeadline = issueEnd + TimeUnit.SECONDS.toNanos(Math.max(5, durationSeconds));
+            while (!outstanding.isEmpty() && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+            // Leaving unfinished requests out would make the tail look best exactly when the
+            // engine falls behind; they took at least until now, so record that as a lower bound
+            long deadline = System.nanoTime();
+            for (Long sequence : outstanding.keySet()) {
+                long[] times = outstanding.remove(sequence);
+                if (times != null) {
+                    corrected.record(deadline - times[0]);
+                    service.record(deadline - times[1]);
+                    unfinished++;
+                }
+            }
+        } finally {
+            workload.close();
+            Quiet.restore();
+        }
+
+        long measuredCount = committed.get() + aborted.get() + errors.get();
+        double windowSeconds = (Math.max(lastCompletion.get(), measureFrom) - measureFrom) / 1e9;
+        double achieved = windowSeconds > 0 ? measuredCount / windowSeconds : 0;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("issued=%d measured=%d committed=%d aborted=%d errors=%d unfinished=%d%n",
+                issued, measuredCount, committed.get(), aborted.get(), errors.get(), unfinished);
+        System.out.printf("throughput: target=%.0f/s achieved=%.0f/s per-core=%.0f/s (%d cores)%n",
+                rate, achieved, achieved / cores, cores);
+        print("corrected latency", corrected);
+        print("service latency  ", service);
+        if (unfinished > 0) {
+            System.out.println("warning: the engine could not sustain the target rate; " + unfinished
+                    + " requests were still outstanding at the drain deadline and were recorded with their"
+                    + " latency up to it, so the upper percentiles are lower bounds");
+        }
+    }
+
+    private static Workload create(String engine, int participants, int steps, long latencyMicros) {
+        switch (engine) {
+            case "2pc":
+                return new TwoPhaseCommitWorkload(participants, latencyMicros, 5000);
+            case "3pc":
+                return new ThreePhaseCommitWorkload(participants, latencyMicros, 5000);
+            case "saga":
+                return new SequentialSagaWorkload(steps, latencyMicros);
+            case "orchestration":
+                return new OrchestratedSagaWorkload(steps, latencyMicros, Runtime.getRuntime().availableProcessors());
+            case "chronography":
+                return new ChoreographedSagaWorkload(steps, latencyMicros);
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine
+                        + "; expected 2pc, 3pc, saga, orchestration or chronography");
+        }
+    }
+
+    private static void print(String label, LatencyHistogram histogram) {
+        StringBuilder line = new StringBuilder(label).append(':');
+        for (double p : PERCENTILES) {
+            line.append(String.format(" p%s=%s", p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p),
+                    format(histogram.percentile(p))));
+        }
+        line.append(" max=").append(format(histogram.max()));
+        System.out.println(line);
+    }
+
+    private static String format(long nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2fms", nanos / 1e6);
+        }
+        return String.format("%.1fus", nanos / 1e3);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.loadgen;
+
+import java.util.concurrent.CompletableFuture;
+
+// One engine driven by the load generator. run() must not block: the generator issues
+// requests on a fixed schedule whether or not earlier ones have finished.
+public interface Workload extends AutoCloseable {
+    // Completes with true when the transaction committed / the saga completed, false when it
+    // aborted / was compensated. injectFailure forces the abort or compensation path.
+    CompletableFuture<Boolean> run(long sequence, boolean injectFailure);
+
+    @Override
+    void close();
+}
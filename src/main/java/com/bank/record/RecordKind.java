@@ -0,0 +1,29 @@
+package com.bank.record;
+
+// Codes are part of the binary format: never renumber, only append
+public enum RecordKind {
+    TWO_PHASE_COMMIT((byte) 1),
+    THREE_PHASE_COMMIT((byte) 2),
+    SAGA((byte) 3),
+    MESSAGE((byte) 4),
+    RESOURCE_MANAGER((byte) 5);
+
+    private final byte code;
+
+    RecordKind(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static RecordKind fromCode(byte code) {
+        for (RecordKind kind : values()) {
+            if (kind.code == code) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown record kind: " + code);
+    }
+}
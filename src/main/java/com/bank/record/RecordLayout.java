@@ -0,0 +1,62 @@
+package com.bank.record;
+
+import java.nio.ByteOrder;
+
+// Fixed 80 byte record shared by transaction logs, saga snapshots and transports.
+//
+//  offset  size  field
+//       0     1  kind        RecordKind code
+//       1     1  state       ordinal of the protocol/saga state, NO_STATE if unset
+//       2     1  flags       kind specific (e.g. a vote carried by a message)
+//       3     1  idLength    number of ASCII bytes used in id
+//       4     4  step        saga step, or message instance
+//       8     4  node        node that wrote the record (message source)
+//      12     4  peer        message destination, 0 otherwise
+//      16     4  epoch       coordinator epoch / ballot
+//      20     4  extra       kind specific (e.g. the ballot a value was accepted in)
+//      24     8  startTime   epoch millis
+//      32     8  updateTime  epoch millis
+//      40    40  id          txId / sagaId, ASCII (room for a 36 character UUID)
+public final class RecordLayout {
+    public static final int KIND_OFFSET = 0;
+    public static final int STATE_OFFSET = 1;
+    public static final int FLAGS_OFFSET = 2;
+    public static final int ID_LENGTH_OFFSET = 3;
+    public static final int STEP_OFFSET = 4;
+    public static final int NODE_OFFSET = 8;
+    public static final int PEER_OFFSET = 12;
+    public static final int EPOCH_OFFSET = 16;
+    public static final int EXTRA_OFFSET = 20;
+    public static final int START_TIME_OFFSET = 24;
+    public static final int UPDATE_TIME_OFFSET = 32;
+    public static final int ID_OFFSET = 40;
+
+    public static final int MAX_ID_LENGTH = 40;
+    public static final int RECORD_LENGTH = ID_OFFSET + MAX_ID_LENGTH;
+
+    public static final byte NO_STATE = -1;
+
+    // Multi-byte fields are big-endian, the ByteBuffer default
+    public static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    private RecordLayout() {
+    }
+
+    public static int offsetOf(int index) {
+        return index * RECORD_LENGTH;
+    }
+
+    // For the places that accept ids from callers (coordinators, resource managers), so a bad
+    // id is rejected there rather than when a log or transport thread first encodes it
+    public static String checkId(String id) {
+        if (id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Id longer than " + MAX_ID_LENGTH + " characters: " + id);
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Id must be ASCII: " + id);
+            }
+        }
+        return id;
+    }
+}
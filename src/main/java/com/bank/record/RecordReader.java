@@ -0,0 +1,129 @@
+package com.bank.record;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.bank.record.RecordLayout.*;
+
+// Flyweight reader: fields are decoded in place on every access, nothing is copied
+// unless id() is called
+public final class RecordReader {
+    private ByteBuffer buffer;
+    private int offset;
+
+    public RecordReader wrap(ByteBuffer buffer, int offset) {
+        if (buffer.order() != BYTE_ORDER) {
+            throw new IllegalArgumentException("Record buffers must be " + BYTE_ORDER);
+        }
+        if (offset < 0 || offset + RECORD_LENGTH > buffer.capacity()) {
+            throw new IndexOutOfBoundsException("No record at offset " + offset);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    public RecordKind kind() {
+        return RecordKind.fromCode(buffer.get(offset + KIND_OFFSET));
+    }
+
+    public boolean isKind(RecordKind kind) {
+        return buffer.get(offset + KIND_OFFSET) == kind.code();
+    }
+
+    public int state() {
+        return buffer.get(offset + STATE_OFFSET);
+    }
+
+    public <E extends Enum<E>> E state(E[] values) {
+        int state = state();
+        if (state == NO_STATE) {
+            return null;
+        }
+        if (state < 0 || state >= values.length) {
+            throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        return values[state];
+    }
+
+    public int flags() {
+        return buffer.get(offset + FLAGS_OFFSET) & 0xFF;
+    }
+
+    public int step() {
+        return buffer.getInt(offset + STEP_OFFSET);
+    }
+
+    public int node() {
+        return buffer.getInt(offset + NODE_OFFSET);
+    }
+
+    public int peer() {
+        return buffer.getInt(offset + PEER_OFFSET);
+    }
+
+    public int epoch() {
+        return buffer.getInt(offset + EPOCH_OFFSET);
+    }
+
+    public int extra() {
+        return buffer.getInt(offset + EXTRA_OFFSET);
+    }
+
+    public long startTime() {
+        return buffer.getLong(offset + START_TIME_OFFSET);
+    }
+
+    public long updateTime() {
+        return buffer.getLong(offset + UPDATE_TIME_OFFSET);
+    }
+
+    public int idLength() {
+        int length = buffer.get(offset + ID_LENGTH_OFFSET);
+        if (length < 0 || length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Bad id length: " + length);
+        }
+        return length;
+    }
+
+    public boolean idEquals(CharSequence id) {
+        int length = idLength();
+        if (id.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + ID_OFFSET + i) != id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public StringBuilder appendId(StringBuilder builder) {
+        int length = idLength();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) buffer.get(offset + ID_OFFSET + i));
+        }
+        return builder;
+    }
+
+    public String id() {
+        byte[] bytes = new byte[idLength()];
+        buffer.get(offset + ID_OFFSET, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+        return appendId(new StringBuilder(kind().name()).append('[')).append(", state=").append(state())
+                .append(", step=").append(step()).append(", node=").append(node()).append(']').toString();
+    }
+}
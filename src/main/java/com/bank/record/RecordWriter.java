@@ -0,0 +1,114 @@
+package com.bank.record;
+
+import java.nio.ByteBuffer;
+
+import static com.bank.record.RecordLayout.*;
+
+// Flyweight writer: encodes fields straight into the wrapped buffer, never allocates
+public final class RecordWriter {
+    private ByteBuffer buffer;
+    private int offset;
+
+    public RecordWriter wrap(ByteBuffer buffer, int offset) {
+        if (buffer.order() != BYTE_ORDER) {
+            throw new IllegalArgumentException("Record buffers must be " + BYTE_ORDER);
+        }
+        if (offset < 0 || offset + RECORD_LENGTH > buffer.capacity()) {
+            throw new IndexOutOfBoundsException("No room for a record at offset " + offset);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public RecordWriter clear() {
+        for (int i = 0; i < RECORD_LENGTH; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0L);
+        }
+        buffer.put(offset + STATE_OFFSET, NO_STATE);
+        return this;
+    }
+
+    public RecordWriter kind(RecordKind kind) {
+        buffer.put(offset + KIND_OFFSET, kind.code());
+        return this;
+    }
+
+    public RecordWriter state(Enum<?> state) {
+        return state(state == null ? NO_STATE : state.ordinal());
+    }
+
+    public RecordWriter state(int state) {
+        buffer.put(offset + STATE_OFFSET, (byte) state);
+        return this;
+    }
+
+    public RecordWriter flags(int flags) {
+        buffer.put(offset + FLAGS_OFFSET, (byte) flags);
+        return this;
+    }
+
+    public RecordWriter step(int step) {
+        buffer.putInt(offset + STEP_OFFSET, step);
+        return this;
+    }
+
+    public RecordWriter node(int node) {
+        buffer.putInt(offset + NODE_OFFSET, node);
+        return this;
+    }
+
+    public RecordWriter peer(int peer) {
+        buffer.putInt(offset + PEER_OFFSET, peer);
+        return this;
+    }
+
+    public RecordWriter epoch(int epoch) {
+        buffer.putInt(offset + EPOCH_OFFSET, epoch);
+        return this;
+    }
+
+    public RecordWriter extra(int extra) {
+        buffer.putInt(offset + EXTRA_OFFSET, extra);
+        return this;
+    }
+
+    public RecordWriter startTime(long startTime) {
+        buffer.putLong(offset + START_TIME_OFFSET, startTime);
+        return this;
+    }
+
+    public RecordWriter updateTime(long updateTime) {
+        buffer.putLong(offset + UPDATE_TIME_OFFSET, updateTime);
+        return this;
+    }
+
+    public RecordWriter id(CharSequence id) {
+        int length = id.length();
+        if (length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Id longer than " + MAX_ID_LENGTH + " characters: " + id);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Id must be ASCII: " + id);
+            }
+            buffer.put(offset + ID_OFFSET + i, (byte) c);
+        }
+        for (int i = length; i < MAX_ID_LENGTH; i++) {
+            buffer.put(offset + ID_OFFSET + i, (byte) 0);
+        }
+        buffer.put(offset + ID_LENGTH_OFFSET, (byte) length);
+        return this;
+    }
+
+    // Copies a whole record, e.g. from a log page into an outgoing transport buffer
+    public RecordWriter copyFrom(RecordReader reader) {
+        ByteBuffer source = reader.buffer();
+        int sourceOffset = reader.offset();
+        for (int i = 0; i < RECORD_LENGTH; i += Long.BYTES) {
+            buffer.putLong(offset + i, source.getLong(sourceOffset + i));
+        }
+        return this;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.resource;
+
+// Both policies order transactions by priority (begin order, kept across restarts) and only
+// ever let an older transaction wait for a younger one or the other way round, never both,
+// so lock waits cannot form a cycle.
+public enum DeadlockPolicy {
+    // Older requesters wait, younger requesters abort themselves
+    WAIT_DIE,
+    // Older requesters abort (wound) the holder, younger requesters wait
+    WOUND_WAIT
+}
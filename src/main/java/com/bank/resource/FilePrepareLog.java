@@ -0,0 +1,162 @@
+package com.bank.resource;
+
+import com.bank.record.RecordKind;
+import com.bank.record.RecordLayout;
+import com.bank.record.RecordReader;
+import com.bank.record.RecordWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Append-only prepare log. Each entry is a RESOURCE_MANAGER record; PREPARED records are
+// followed by their write set (step = number of writes), each write encoded as
+//
+//   int keyLength | key UTF-8 | int valueLength (-1 for a delete) | value UTF-8
+//
+// With force enabled every record is fsync'ed before prepared() or finished() returns. A crash in the
+// middle of an append leaves a torn entry at the tail; it was never synced, so no vote
+// depended on it, and recovery truncates the log back to the last complete entry.
+public class FilePrepareLog implements PrepareLog {
+    private final FileChannel channel;
+    private final boolean force;
+    private final RecordWriter writer = new RecordWriter();
+    private final Map<String, Map<String, String>> inDoubt;
+
+    public FilePrepareLog(Path path, boolean force) {
+        this.force = force;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.inDoubt = scan();
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void prepared(String txId, Map<String, String> writes) {
+        int size = RecordLayout.RECORD_LENGTH;
+        for (Map.Entry<String, String> write : writes.entrySet()) {
+            size += 2 * Integer.BYTES + utf8Length(write.getKey()) + (write.getValue() == null ? 0 : utf8Length(write.getValue()));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        writer.wrap(buffer, 0).clear()
+                .kind(RecordKind.RESOURCE_MANAGER)
+                .state(TransactionStatus.PREPARED)
+                .id(txId)
+                .step(writes.size())
+                .startTime(System.currentTimeMillis());
+        buffer.position(RecordLayout.RECORD_LENGTH);
+        for (Map.Entry<String, String> write : writes.entrySet()) {
+            putString(buffer, write.getKey());
+            putString(buffer, write.getValue());
+        }
+        append(buffer.flip(), force);
+    }
+
+    @Override
+    public synchronized void finished(String txId, TransactionStatus outcome) {
+        ByteBuffer buffer = ByteBuffer.allocate(RecordLayout.RECORD_LENGTH);
+        writer.wrap(buffer, 0).clear()
+                .kind(RecordKind.RESOURCE_MANAGER)
+                .state(outcome)
+                .id(txId)
+                .startTime(System.currentTimeMillis());
+        // Synced too: the participant acknowledges the outcome once this returns, and the
+        // coordinator then forgets it, so a lost record could never be recovered by asking
+        append(buffer, force);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> inDoubt() {
+        return inDoubt;
+    }
+
+    private void append(ByteBuffer buffer, boolean sync) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Map<String, String>> scan() throws IOException {
+        Map<String, Map<String, String>> pending = new LinkedHashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // keep reading until the whole file is in memory
+        }
+        buffer.flip();
+        RecordReader reader = new RecordReader();
+        int end = 0;
+        while (buffer.remaining() >= RecordLayout.RECORD_LENGTH) {
+            reader.wrap(buffer, buffer.position());
+            buffer.position(buffer.position() + RecordLayout.RECORD_LENGTH);
+            TransactionStatus status = reader.state(TransactionStatus.values());
+            if (status == TransactionStatus.PREPARED) {
+                Map<String, String> writes = new LinkedHashMap<>();
+                try {
+                    for (int i = 0; i < reader.step(); i++) {
+                        writes.put(getString(buffer), getString(buffer));
+                    }
+                } catch (BufferUnderflowException e) {
+                    break; // torn write set
+                }
+                pending.put(reader.id(), writes);
+            } else {
+                pending.remove(reader.id());
+            }
+            end = buffer.position();
+        }
+        if (end < channel.size()) {
+            channel.truncate(end);
+        }
+        return pending;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Exclusive key locks, striped so unrelated keys never contend on the same monitor.
+// Only writers lock; readers go to the MVCC store and never wait.
+class LockTable {
+    // Waiters re-check periodically because a wound can come from another stripe
+    private static final long WOUND_CHECK_MILLIS = 2;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final DeadlockPolicy policy;
+
+    LockTable(int stripeCount, DeadlockPolicy policy) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+    }
+
+    // Returns the nanoseconds spent waiting
+    long acquire(Transaction tx, String key) {
+        Stripe stripe = stripeFor(key);
+        long waitStart = 0;
+        synchronized (stripe) {
+            while (true) {
+                if (tx.isWounded()) {
+                    throw new TransactionAbortedException(tx.txId, "wounded by an older transaction");
+                }
+                Transaction holder = stripe.owners.get(key);
+                if (holder == null) {
+                    stripe.owners.put(key, tx);
+                    tx.locks.add(key);
+                    return waitStart == 0 ? 0 : System.nanoTime() - waitStart;
+                }
+                if (holder == tx) {
+                    return 0;
+                }
+                boolean older = tx.priority < holder.priority;
+                if (policy == DeadlockPolicy.WAIT_DIE && !older) {
+                    throw new TransactionAbortedException(tx.txId, "died waiting for " + holder.txId + " on " + key);
+                }
+                if (policy == DeadlockPolicy.WOUND_WAIT && older) {
+                    holder.wound();
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                try {
+                    stripe.wait(WOUND_CHECK_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransactionAbortedException(tx.txId, "interrupted waiting for " + key);
+                }
+            }
+        }
+    }
+
+    void releaseAll(Transaction tx) {
+        for (String key : tx.locks) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                if (stripe.owners.get(key) == tx) {
+                    stripe.owners.remove(key);
+                    stripe.notifyAll();
+                }
+            }
+        }
+        tx.locks.clear();
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static class Stripe {
+        private final Map<String, Transaction> owners = new HashMap<>();
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.resource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Multi-version key-value store. Each key has a chain of committed versions, newest first;
+// a reader walks the chain to the newest version no later than its snapshot, so it never
+// waits for writers, prepared or not. Uncommitted writes never reach this store.
+class MvccStore {
+    private final Map<String, Version> heads = new ConcurrentHashMap<>();
+
+    String read(String key, long snapshot) {
+        for (Version version = heads.get(key); version != null; version = version.next) {
+            if (version.commitTs <= snapshot) {
+                return version.value;
+            }
+        }
+        return null;
+    }
+
+    // Commit timestamp of the newest version, or -1 for a key that was never written
+    long latestCommitTs(String key) {
+        Version head = heads.get(key);
+        return head == null ? -1 : head.commitTs;
+    }
+
+    // Versions older than the newest one visible to oldestSnapshot can no longer be read
+    void install(Map<String, String> writes, long commitTs, long oldestSnapshot) {
+        for (Map.Entry<String, String> write : writes.entrySet()) {
+            Version head = heads.compute(write.getKey(), (key, previous) -> new Version(write.getValue(), commitTs, previous));
+            for (Version version = head; version != null; version = version.next) {
+                if (version.commitTs <= oldestSnapshot) {
+                    version.next = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    int size() {
+        return heads.size();
+    }
+
+    private static class Version {
+        private final String value; // null marks a delete
+        private final long commitTs;
+        private volatile Version next;
+
+        Version(String value, long commitTs, Version next) {
+            this.value = value;
+            this.commitTs = commitTs;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.resource;
+
+import java.util.Map;
+
+// Durable record of prepared transactions. A participant that has voted to commit must be
+// able to honour that vote after a crash, so the prepare record (with its write set) has to
+// be stable before the vote leaves the resource manager.
+public interface PrepareLog extends AutoCloseable {
+    PrepareLog NONE = new PrepareLog() {
+        @Override
+        public void prepared(String txId, Map<String, String> writes) {
+        }
+
+        @Override
+        public void finished(String txId, TransactionStatus outcome) {
+        }
+
+        @Override
+        public Map<String, Map<String, String>> inDoubt() {
+            return Map.of();
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    void prepared(String txId, Map<String, String> writes);
+
+    void finished(String txId, TransactionStatus outcome);
+
+    // Prepared transactions without an outcome, in prepare order
+    Map<String, Map<String, String>> inDoubt();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,209 @@
+package com.bank.resource;
+
+import com.bank.record.RecordLayout;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Participant-side storage: an in-memory key-value store with MVCC reads, striped write
+// locks with deadlock avoidance, and a prepare log. Writes follow first-updater-wins: a
+// transaction that locks a key someone else committed after its snapshot is aborted, so
+// a read-modify-write can never overwrite an update it did not see. Participants call prepare/commit/abort
+// on behalf of the commit protocol; clients read and write through begin().
+public class ResourceManager {
+    private final String name;
+    private final LockTable locks;
+    private final MvccStore store = new MvccStore();
+    private final PrepareLog log;
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Transaction> snapshots = new ConcurrentSkipListSet<>(
+            Comparator.<Transaction>comparingLong(tx -> tx.snapshot).thenComparingLong(tx -> tx.serial));
+    private final AtomicLong priorities = new AtomicLong();
+    private final AtomicLong serials = new AtomicLong();
+    private final Object commitLock = new Object();
+    private volatile long lastCommitted;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder aborts = new LongAdder();
+    private final LongAdder deadlockAborts = new LongAdder();
+    private final LongAdder conflictAborts = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+
+    public ResourceManager(String name, int lockStripes, DeadlockPolicy policy, PrepareLog log) {
+        this.name = name;
+        this.locks = new LockTable(lockStripes, policy);
+        this.log = log;
+        recover();
+    }
+
+    // Transactions that were prepared before a restart hold their locks again until the
+    // coordinator tells us the outcome. Priority 0 makes them older than anything new.
+    private void recover() {
+        for (Map.Entry<String, Map<String, String>> entry : log.inDoubt().entrySet()) {
+            Transaction tx = new Transaction(this, entry.getKey(), 0, serials.incrementAndGet(), lastCommitted);
+            for (Map.Entry<String, String> write : entry.getValue().entrySet()) {
+                locks.acquire(tx, write.getKey());
+                tx.writes.put(write.getKey(), write.getValue());
+            }
+            tx.transition(TransactionStatus.ACTIVE, TransactionStatus.PREPARED);
+            transactions.put(tx.txId, tx);
+            System.out.println(name + ": recovered in-doubt transaction " + tx.txId);
+        }
+    }
+
+    public Transaction begin(String txId) {
+        return begin(txId, priorities.incrementAndGet());
+    }
+
+    // A transaction restarted after a deadlock abort should reuse its first priority,
+    // otherwise it can keep losing to newer transactions forever
+    public Transaction begin(String txId, long priority) {
+        RecordLayout.checkId(txId);
+        Transaction tx;
+        // Registered atomically with the snapshot so a concurrent commit cannot prune
+        // the versions it is about to read
+        synchronized (commitLock) {
+            tx = new Transaction(this, txId, priority, serials.incrementAndGet(), lastCommitted);
+            snapshots.add(tx);
+        }
+        if (transactions.putIfAbsent(txId, tx) != null) {
+            snapshots.remove(tx);
+            throw new IllegalStateException("Transaction " + txId + " already exists on " + name);
+        }
+        return tx;
+    }
+
+    public Transaction get(String txId) {
+        return transactions.get(txId);
+    }
+
+    // Reads the latest committed value
+    public String read(String key) {
+        return store.read(key, lastCommitted);
+    }
+
+    String read(String key, long snapshot) {
+        return store.read(key, snapshot);
+    }
+
+    void lock(Transaction tx, String key) {
+        try {
+            lockWaitNanos.add(locks.acquire(tx, key));
+        } catch (TransactionAbortedException e) {
+            rollback(tx, true);
+            throw e;
+        }
+        // Holding the lock, no one else can commit this key, so the check cannot go stale
+        if (store.latestCommitTs(key) > tx.snapshot) {
+            rollback(tx, false);
+            conflictAborts.increment();
+            throw new TransactionAbortedException(tx.txId, key + " was updated after its snapshot");
+        }
+    }
+
+    // The vote: true once the write set is durable and the locks will be held until the
+    // outcome arrives. A participant only takes part in transactions begun on it (read-only
+    // ones included), so an unknown id votes no: it was never begun here, or was begun and
+    // lost its writes in a restart before it prepared.
+    public boolean prepare(String txId) {
+        Transaction tx = transactions.get(txId);
+        if (tx == null) {
+            return false;
+        }
+        if (!tx.transition(TransactionStatus.ACTIVE, TransactionStatus.PREPARED)) {
+            rollback(tx, tx.isWounded());
+            transactions.remove(txId);
+            return false;
+        }
+        // The snapshot is no longer needed once no more reads can happen
+        snapshots.remove(tx);
+        if (!tx.writes.isEmpty()) {
+            log.prepared(txId, tx.writes);
+        }
+        return true;
+    }
+
+    public void commit(String txId) {
+        Transaction tx = transactions.remove(txId);
+        if (tx == null || !tx.finish(TransactionStatus.COMMITTED)) {
+            return;
+        }
+        snapshots.remove(tx);
+        if (!tx.writes.isEmpty()) {
+            synchronized (commitLock) {
+                long commitTs = lastCommitted + 1;
+                store.install(tx.writes, commitTs, oldestSnapshot(commitTs));
+                lastCommitted = commitTs;
+            }
+            log.finished(txId, TransactionStatus.COMMITTED);
+        }
+        locks.releaseAll(tx);
+        commits.increment();
+    }
+
+    public void abort(String txId) {
+        Transaction tx = transactions.remove(txId);
+        if (tx != null) {
+            rollback(tx, false);
+        }
+    }
+
+    // Deadlock victims stay registered, as ABORTED, so that a later prepare votes no
+    // instead of mistaking them for a participant that was never written to
+    void rollback(Transaction tx, boolean deadlock) {
+        boolean wasPrepared = tx.getStatus() == TransactionStatus.PREPARED;
+        if (!tx.finish(TransactionStatus.ABORTED)) {
+            return;
+        }
+        snapshots.remove(tx);
+        if (wasPrepared && !tx.writes.isEmpty()) {
+            log.finished(tx.txId, TransactionStatus.ABORTED);
+        }
+        locks.releaseAll(tx);
+        aborts.increment();
+        if (deadlock) {
+            deadlockAborts.increment();
+        }
+    }
+
+    private long oldestSnapshot(long otherwise) {
+        for (Transaction tx : snapshots) {
+            return tx.snapshot;
+        }
+        return otherwise;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getAborts() {
+        return aborts.sum();
+    }
+
+    // Aborts caused by wait-die or wound-wait rather than by the client or the coordinator
+    public long getDeadlockAborts() {
+        return deadlockAborts.sum();
+    }
+
+    // Aborts because another transaction committed a key first (first-updater-wins)
+    public long getConflictAborts() {
+        return conflictAborts.sum();
+    }
+
+    public long getLockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    public int getKeyCount() {
+        return store.size();
+    }
+}
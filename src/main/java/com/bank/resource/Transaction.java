@@ -0,0 +1,96 @@
+package com.bank.resource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A transaction's view of one resource manager. Reads see the snapshot taken at begin
+// plus the transaction's own writes; writes are buffered until commit.
+public class Transaction {
+    private final ResourceManager manager;
+    final String txId;
+    final long priority;
+    final long serial;
+    final long snapshot;
+    final Map<String, String> writes = new LinkedHashMap<>();
+    final List<String> locks = new ArrayList<>();
+    private TransactionStatus status = TransactionStatus.ACTIVE;
+    private volatile boolean wounded;
+
+    Transaction(ResourceManager manager, String txId, long priority, long serial, long snapshot) {
+        this.manager = manager;
+        this.txId = txId;
+        this.priority = priority;
+        this.serial = serial;
+        this.snapshot = snapshot;
+    }
+
+    public String getTxId() {
+        return txId;
+    }
+
+    public long getPriority() {
+        return priority;
+    }
+
+    public synchronized TransactionStatus getStatus() {
+        return status;
+    }
+
+    public String read(String key) {
+        checkActive();
+        if (writes.containsKey(key)) {
+            return writes.get(key);
+        }
+        return manager.read(key, snapshot);
+    }
+
+    public void write(String key, String value) {
+        checkActive();
+        manager.lock(this, key);
+        writes.put(key, value);
+    }
+
+    public void delete(String key) {
+        write(key, null);
+    }
+
+    void checkActive() {
+        if (wounded) {
+            manager.rollback(this, true);
+            throw new TransactionAbortedException(txId, "wounded by an older transaction");
+        }
+        if (getStatus() != TransactionStatus.ACTIVE) {
+            throw new IllegalStateException("Transaction " + txId + " is " + getStatus());
+        }
+    }
+
+    // Prepared transactions have promised to commit and can no longer be wounded
+    synchronized boolean wound() {
+        if (status == TransactionStatus.ACTIVE) {
+            wounded = true;
+        }
+        return wounded;
+    }
+
+    boolean isWounded() {
+        return wounded;
+    }
+
+    synchronized boolean transition(TransactionStatus from, TransactionStatus to) {
+        if (status != from || (wounded && to == TransactionStatus.PREPARED)) {
+            return false;
+        }
+        status = to;
+        return true;
+    }
+
+    synchronized boolean finish(TransactionStatus outcome) {
+        if (status == TransactionStatus.COMMITTED || status == TransactionStatus.ABORTED) {
+            return false;
+        }
+        status = outcome;
+        return true;
+    }
+}
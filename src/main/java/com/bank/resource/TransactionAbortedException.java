@@ -0,0 +1,9 @@
+package com.bank.resource;
+
+public class TransactionAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TransactionAbortedException(String txId, String reason) {
+        super("Transaction " + txId + " aborted: " + reason);
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.resource;
+
+// Ordinals are written into prepare log records: only append
+public enum TransactionStatus {
+    ACTIVE,
+    PREPARED,
+    COMMITTED,
+    ABORTED
+}
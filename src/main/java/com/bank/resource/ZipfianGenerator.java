@@ -0,0 +1,51 @@
+package com.bank.resource;
+
+import java.util.Random;
+
+// Skewed key picker for contention workloads: item i (0 = hottest) is drawn with
+// probability proportional to 1 / (i + 1)^theta. Uses the constant-time method from
+// Gray et al., "Quickly Generating Billion-Record Synthetic Databases", as in YCSB.
+// Not thread-safe: give each load thread its own generator.
+public class ZipfianGenerator {
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final long items;
+    private final double theta;
+    private final double alpha;
+    private final double zetan;
+    private final double eta;
+    private final Random random;
+
+    public ZipfianGenerator(long items, double theta, long seed) {
+        this.items = items;
+        this.theta = theta;
+        this.random = new Random(seed);
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+    }
+
+    public long next() {
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    public String nextKey() {
+        return "key-" + next();
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.saga;
+
+import java.util.Arrays;
+
+// Per-item outcome of a batch call: no entry means the item succeeded
+public final class BatchResult {
+    private final Throwable[] failures;
+
+    private BatchResult(int size) {
+        this.failures = new Throwable[size];
+    }
+
+    public static BatchResult success(int size) {
+        return new BatchResult(size);
+    }
+
+    public BatchResult fail(int index, Throwable cause) {
+        failures[index] = cause;
+        return this;
+    }
+
+    public int size() {
+        return failures.length;
+    }
+
+    public Throwable failure(int index) {
+        return failures[index];
+    }
+
+    public boolean allSucceeded() {
+        return Arrays.stream(failures).allMatch(f -> f == null);
+    }
+}
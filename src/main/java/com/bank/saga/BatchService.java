@@ -0,0 +1,12 @@
+package com.bank.saga;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// A downstream service that handles many saga calls in one request. The result holds one
+// outcome per request, in request order, so one bad item does not fail its neighbours.
+public interface BatchService {
+    CompletableFuture<BatchResult> executeBatch(List<RequestContext> requests);
+
+    CompletableFuture<BatchResult> compensateBatch(List<RequestContext> requests);
+}
@@ -0,0 +1,122 @@
+package com.bank.saga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in micro-batcher that lets a BatchService stand in for a per-saga Service. Calls from
+// concurrent sagas are collected until maxBatchSize calls are waiting or maxDelayMicros has
+// passed since the first one, then sent as a single batch; each saga's future completes with
+// its own item's outcome, so a failed item only sends that saga into compensation.
+//
+// Register it like any other service, e.g.
+//   orchestrator.registerService("payment", new ServiceInfo("PaymentService",
+//           new BatchingService(paymentBackend, 100, 1000, ServiceTimer.shared())));
+public class BatchingService implements Service {
+    private final Batcher executions;
+    private final Batcher compensations;
+
+    public BatchingService(BatchService backend, int maxBatchSize, long maxDelayMicros, ServiceTimer timer) {
+        this.executions = new Batcher(backend::executeBatch, maxBatchSize, maxDelayMicros, timer);
+        this.compensations = new Batcher(backend::compensateBatch, maxBatchSize, maxDelayMicros, timer);
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(RequestContext context) {
+        return executions.submit(context);
+    }
+
+    @Override
+    public CompletableFuture<Void> compensate(RequestContext context) {
+        return compensations.submit(context);
+    }
+
+    public long getBatches() {
+        return executions.batches + compensations.batches;
+    }
+
+    @FunctionalInterface
+    private interface BatchCall {
+        CompletableFuture<BatchResult> apply(List<RequestContext> requests);
+    }
+
+    private static class Batcher {
+        private final BatchCall call;
+        private final int maxBatchSize;
+        private final long maxDelayMicros;
+        private final ServiceTimer timer;
+        private List<RequestContext> requests = new ArrayList<>();
+        private List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Lets a window timer tell whether the batch it was started for already left
+        private long generation;
+        private volatile long batches;
+
+        Batcher(BatchCall call, int maxBatchSize, long maxDelayMicros, ServiceTimer timer) {
+            this.call = call;
+            this.maxBatchSize = maxBatchSize;
+            this.maxDelayMicros = maxDelayMicros;
+            this.timer = timer;
+        }
+
+        CompletableFuture<Void> submit(RequestContext context) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            boolean full;
+            synchronized (this) {
+                requests.add(context);
+                futures.add(future);
+                full = requests.size() >= maxBatchSize;
+                if (requests.size() == 1 && !full) {
+                    long windowOf = generation;
+                    timer.schedule(() -> flush(windowOf), maxDelayMicros, TimeUnit.MICROSECONDS);
+                }
+            }
+            if (full) {
+                flush(-1);
+            }
+            return future;
+        }
+
+        private void flush(long windowOf) {
+            List<RequestContext> batch;
+            List<CompletableFuture<Void>> waiting;
+            synchronized (this) {
+                if (requests.isEmpty() || (windowOf >= 0 && windowOf != generation)) {
+                    return;
+                }
+                batch = requests;
+                waiting = futures;
+                requests = new ArrayList<>();
+                futures = new ArrayList<>();
+                generation++;
+                batches++;
+            }
+            CompletableFuture<BatchResult> result;
+            try {
+                result = call.apply(batch);
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            if (result == null) {
+                result = CompletableFuture.completedFuture(null);
+            }
+            // Anything that is not one outcome per item fails the whole batch; otherwise the
+            // exception would be lost inside whenComplete and no saga would ever finish
+            result.whenComplete((outcome, ex) -> {
+                if (ex == null && outcome == null) {
+                    ex = new IllegalStateException("Batch of " + waiting.size() + " returned no result");
+                } else if (ex == null && outcome.size() != waiting.size()) {
+                    ex = new IllegalStateException("Batch of " + waiting.size() + " returned " + outcome.size() + " results");
+                }
+                for (int i = 0; i < waiting.size(); i++) {
+                    Throwable failure = ex != null ? ex : outcome.failure(i);
+                    if (failure == null) {
+                        waiting.get(i).complete(null);
+                    } else {
+                        waiting.get(i).completeExceptionally(failure);
+                    }
+                }
+            });
+        }
+    }
+}
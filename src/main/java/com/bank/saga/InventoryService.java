@@ -3,29 +3,19 @@ package com.bank.saga;
 import java.util.concurrent.CompletableFuture;
 
 class InventoryService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("InventoryService: Reducing inventory");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(2000); // Simulating inventory update time
-                System.out.println("InventoryService: Inventory updated successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(2000) // Simulating inventory update time
+                .thenRun(() -> System.out.println("InventoryService: Inventory updated successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("InventoryService: Restoring inventory");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(2000); // Simulating restoration time
-                System.out.println("InventoryService: Inventory restored successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(2000) // Simulating restoration time
+                .thenRun(() -> System.out.println("InventoryService: Inventory restored successfully"));
     }
 }
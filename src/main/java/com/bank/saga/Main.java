@@ -1,11 +1,10 @@
 package com.bank.saga;
 
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 // Usage
 public class Main {
-    public static void main(String[] args) throws InterruptedException, ExecutionException {
+    public static void main(String[] args) {
         List<Service> services = List.of(
                 new OrderService(),
                 new InventoryService(),
@@ -15,9 +14,9 @@ public class Main {
         SagaManager manager = new SagaManager(services);
 
         System.out.println("Executing saga...");
-        manager.executeSaga();
+        manager.executeSaga("SAGA-001").join();
 
         System.out.println("\nCompensating saga...");
-        manager.compensateSaga();
+        manager.compensateSaga("SAGA-001").join();
     }
 }
@@ -3,29 +3,19 @@ package com.bank.saga;
 import java.util.concurrent.CompletableFuture;
 
 class OrderService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("OrderService: Placing order");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(1000); // Simulating order processing time
-                System.out.println("OrderService: Order placed successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(1000) // Simulating order processing time
+                .thenRun(() -> System.out.println("OrderService: Order placed successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("OrderService: Cancelling order");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(1000); // Simulating cancellation time
-                System.out.println("OrderService: Order cancelled successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(1000) // Simulating cancellation time
+                .thenRun(() -> System.out.println("OrderService: Order cancelled successfully"));
     }
 }
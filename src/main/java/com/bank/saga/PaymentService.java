@@ -3,29 +3,19 @@ package com.bank.saga;
 import java.util.concurrent.CompletableFuture;
 
 class PaymentService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("PaymentService: Processing payment");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(1500); // Simulating payment processing time
-                System.out.println("PaymentService: Payment processed successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(1500) // Simulating payment processing time
+                .thenRun(() -> System.out.println("PaymentService: Payment processed successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("PaymentService: Refunding payment");
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(1500); // Simulating refund time
-                System.out.println("PaymentService: Refund processed successfully");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        return timer.delay(1500) // Simulating refund time
+                .thenRun(() -> System.out.println("PaymentService: Refund processed successfully"));
     }
 }
@@ -0,0 +1,40 @@
+package com.bank.saga;
+
+// Travels with every service call of a saga
+public final class RequestContext {
+    private final String sagaId;
+    private final int step;
+    private final long startNanos;
+
+    public RequestContext(String sagaId) {
+        this(sagaId, 0, System.nanoTime());
+    }
+
+    private RequestContext(String sagaId, int step, long startNanos) {
+        this.sagaId = sagaId;
+        this.step = step;
+        this.startNanos = startNanos;
+    }
+
+    public RequestContext atStep(int step) {
+        return new RequestContext(sagaId, step, startNanos);
+    }
+
+    public String getSagaId() {
+        return sagaId;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    // When the saga started, for latency accounting
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return sagaId + "#" + step;
+    }
+}
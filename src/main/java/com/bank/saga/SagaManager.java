@@ -2,7 +2,6 @@ package com.bank.saga;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 class SagaManager {
     private final List<Service> services;
@@ -11,17 +10,32 @@ class SagaManager {
         this.services = services;
     }
 
-    public void executeSaga() throws InterruptedException, ExecutionException {
-        for (Service service : services) {
-            CompletableFuture<Void> future = service.execute();
-            future.get(); // Wait for each service to complete
+    // Each service starts when the previous one completes; no thread waits in between
+    public CompletableFuture<Void> executeSaga(String sagaId) {
+        RequestContext context = new RequestContext(sagaId);
+        CompletableFuture<Void> saga = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < services.size(); i++) {
+            Service service = services.get(i);
+            RequestContext step = context.atStep(i);
+            saga = saga.thenCompose(v -> service.execute(step));
         }
+        return saga;
     }
 
-    public void compensateSaga() throws InterruptedException, ExecutionException {
-        for (int i = services.size() - 1; i >= 0; i--) {
-            CompletableFuture<Void> future = services.get(i).compensate();
-            future.get(); // Wait for each service to complete
+    // Undoes a saga that completed
+    public CompletableFuture<Void> compensateSaga(String sagaId) {
+        return compensateSaga(sagaId, services.size());
+    }
+
+    // Undoes the steps before failedStep, last first; the failed step itself took no effect
+    public CompletableFuture<Void> compensateSaga(String sagaId, int failedStep) {
+        RequestContext context = new RequestContext(sagaId);
+        CompletableFuture<Void> saga = CompletableFuture.completedFuture(null);
+        for (int i = failedStep - 1; i >= 0; i--) {
+            Service service = services.get(i);
+            RequestContext step = context.atStep(i);
+            saga = saga.thenCompose(v -> service.compensate(step));
         }
+        return saga;
     }
 }
@@ -0,0 +1,58 @@
+package com.bank.saga;
+
+import com.bank.loadgen.Workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Base for the saga workloads. Steps are SimulatedServices; an injected failure makes the
+// last step of that saga fail, so every step before it has to be compensated. The failed
+// step is not, in any engine, so all three do the same compensation work per failure.
+public abstract class SagaWorkload implements Workload {
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> failedAt = new ConcurrentHashMap<>();
+
+    protected List<Service> services(int steps, long latencyMicros) {
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            services.add(new SimulatedService(latencyMicros, context -> {
+                if (context.getStep() != steps - 1 || !failing.remove(context.getSagaId())) {
+                    return false;
+                }
+                failedAt.put(context.getSagaId(), context.getStep());
+                return true;
+            }));
+        }
+        return services;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> run(long sequence, boolean injectFailure) {
+        String sagaId = "SAGA-" + sequence;
+        if (injectFailure) {
+            failing.add(sagaId);
+        }
+        return execute(sagaId)
+                .thenApply(v -> true)
+                .exceptionallyCompose(ex -> compensateFailed(sagaId, ex));
+    }
+
+    private CompletableFuture<Boolean> compensateFailed(String sagaId, Throwable failure) {
+        Integer failedStep = failedAt.remove(sagaId);
+        if (failedStep == null) {
+            return CompletableFuture.failedFuture(failure); // not an injected failure
+        }
+        return compensate(sagaId, failedStep).thenApply(v -> false);
+    }
+
+    protected abstract CompletableFuture<Void> execute(String sagaId);
+
+    // Engines that compensate a failed saga themselves keep this no-op
+    protected CompletableFuture<Void> compensate(String sagaId, int failedStep) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
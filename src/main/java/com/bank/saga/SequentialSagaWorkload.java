@@ -0,0 +1,26 @@
+package com.bank.saga;
+
+import java.util.concurrent.CompletableFuture;
+
+// Sequential saga engine for the load generator; a failed saga is compensated by the caller
+public class SequentialSagaWorkload extends SagaWorkload {
+    private final SagaManager manager;
+
+    public SequentialSagaWorkload(int steps, long serviceLatencyMicros) {
+        manager = new SagaManager(services(steps, serviceLatencyMicros));
+    }
+
+    @Override
+    protected CompletableFuture<Void> execute(String sagaId) {
+        return manager.executeSaga(sagaId);
+    }
+
+    @Override
+    protected CompletableFuture<Void> compensate(String sagaId, int failedStep) {
+        return manager.compensateSaga(sagaId, failedStep);
+    }
+
+    @Override
+    public void close() {
+    }
+}
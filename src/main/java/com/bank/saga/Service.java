@@ -2,8 +2,11 @@ package com.bank.saga;
 
 import java.util.concurrent.CompletableFuture;
 
-interface Service {
-    CompletableFuture<Void> execute();
+// Saga step SPI shared by the sequential, orchestrated and choreographed engines.
+// Implementations must not block the calling thread: remote calls and simulated latency
+// complete the returned future later (see ServiceTimer).
+public interface Service {
+    CompletableFuture<Void> execute(RequestContext context);
 
-    CompletableFuture<Void> compensate();
+    CompletableFuture<Void> compensate(RequestContext context);
 }
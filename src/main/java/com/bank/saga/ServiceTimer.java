@@ -0,0 +1,46 @@
+package com.bank.saga;
+
+import java.util.concurrent.*;
+
+// Completes futures after a delay from a single timer thread, so waiting on a slow (or
+// simulated) downstream service costs a queue entry instead of a parked thread.
+// Continuations attached without an executor run on the timer thread: keep them short.
+public final class ServiceTimer {
+    private static final ServiceTimer SHARED = new ServiceTimer("service-timer");
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public ServiceTimer(String name) {
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public static ServiceTimer shared() {
+        return SHARED;
+    }
+
+    public CompletableFuture<Void> delay(long millis) {
+        return delay(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Void> delay(long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(null), delay, unit);
+        return future;
+    }
+
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduler.schedule(task, delay, unit);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.saga;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Saga step for benchmarks and load tests: no logging, latency from the shared ServiceTimer,
+// and execute fails for the calls the predicate selects. Compensation always succeeds.
+public class SimulatedService implements Service {
+    private final long latencyMicros;
+    private final Predicate<RequestContext> failing;
+
+    public SimulatedService(long latencyMicros, Predicate<RequestContext> failing) {
+        this.latencyMicros = latencyMicros;
+        this.failing = failing;
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(RequestContext context) {
+        CompletableFuture<Void> done = ServiceTimer.shared().delay(latencyMicros, TimeUnit.MICROSECONDS);
+        if (!failing.test(context)) {
+            return done;
+        }
+        return done.thenRun(() -> {
+            throw new IllegalStateException("Injected failure in " + context);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> compensate(RequestContext context) {
+        return ServiceTimer.shared().delay(latencyMicros, TimeUnit.MICROSECONDS);
+    }
+}
@@ -0,0 +1,32 @@
+package com.bank.saga.chronography;
+
+import com.bank.saga.SagaWorkload;
+
+import java.util.concurrent.CompletableFuture;
+
+// Choreographed saga engine, with its SagaChronography, for the load generator; a failed
+// saga is compensated by the caller
+public class ChoreographedSagaWorkload extends SagaWorkload {
+    private final SagaChronography chronography;
+    private final SagaManager manager;
+
+    public ChoreographedSagaWorkload(int steps, long serviceLatencyMicros) {
+        chronography = new SagaChronography(600);
+        manager = new SagaManager(chronography, services(steps, serviceLatencyMicros));
+    }
+
+    @Override
+    protected CompletableFuture<Void> execute(String sagaId) {
+        return manager.executeSaga(sagaId);
+    }
+
+    @Override
+    protected CompletableFuture<Void> compensate(String sagaId, int failedStep) {
+        return manager.compensateSaga(sagaId, failedStep);
+    }
+
+    @Override
+    public void close() {
+        chronography.shutdown();
+    }
+}
@@ -1,22 +1,23 @@
 package com.bank.saga.chronography;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+import com.bank.saga.ServiceTimer;
+
 import java.util.concurrent.CompletableFuture;
 
 class InventoryService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("InventoryService: Reducing inventory");
-        try {
-            Thread.sleep(2000); // Simulating inventory update time
-            System.out.println("InventoryService: Inventory updated successfully");
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        return CompletableFuture.completedFuture(null);
+        return timer.delay(2000) // Simulating inventory update time
+                .thenRun(() -> System.out.println("InventoryService: Inventory updated successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("InventoryService: Restoring inventory");
         return CompletableFuture.completedFuture(null);
     }
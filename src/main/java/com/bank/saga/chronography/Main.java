@@ -1,11 +1,12 @@
 package com.bank.saga.chronography;
 
+import com.bank.saga.Service;
+
 import java.util.List;
-import java.util.concurrent.*;
 
 // Usage
 public class Main {
-    public static void main(String[] args) throws InterruptedException, ExecutionException {
+    public static void main(String[] args) {
         SagaChronography chronography = new SagaChronography(600); // 10 minutes max age
 
         List<Service> services = List.of(
@@ -18,12 +19,12 @@ public class Main {
 
         String sagaId = "SAGA-001";
         System.out.println("Executing saga...");
-        manager.executeSaga(sagaId);
-
-        // Simulate failure after some time
-        Thread.sleep(5000);
+        manager.executeSaga(sagaId).join();
 
+        // Simulate failure after the saga completed
         System.out.println("\nCompensating saga...");
-        manager.compensateSaga(sagaId);
+        manager.compensateSaga(sagaId).join();
+
+        chronography.shutdown();
     }
 }
@@ -1,22 +1,23 @@
 package com.bank.saga.chronography;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+import com.bank.saga.ServiceTimer;
+
 import java.util.concurrent.CompletableFuture;
 
 class OrderService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("OrderService: Placing order");
-        try {
-            Thread.sleep(1000); // Simulating order processing time
-            System.out.println("OrderService: Order placed successfully");
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        return CompletableFuture.completedFuture(null);
+        return timer.delay(1000) // Simulating order processing time
+                .thenRun(() -> System.out.println("OrderService: Order placed successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("OrderService: Cancelling order");
         return CompletableFuture.completedFuture(null);
     }
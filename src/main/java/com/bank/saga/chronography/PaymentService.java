@@ -1,22 +1,23 @@
 package com.bank.saga.chronography;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+import com.bank.saga.ServiceTimer;
+
 import java.util.concurrent.CompletableFuture;
 
 class PaymentService implements Service {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
     @Override
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(RequestContext context) {
         System.out.println("PaymentService: Processing payment");
-        try {
-            Thread.sleep(1500); // Simulating payment processing time
-            System.out.println("PaymentService: Payment processed successfully");
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        return CompletableFuture.completedFuture(null);
+        return timer.delay(1500) // Simulating payment processing time
+                .thenRun(() -> System.out.println("PaymentService: Payment processed successfully"));
     }
 
     @Override
-    public CompletableFuture<Void> compensate() {
+    public CompletableFuture<Void> compensate(RequestContext context) {
         System.out.println("PaymentService: Refunding payment");
         return CompletableFuture.completedFuture(null);
     }
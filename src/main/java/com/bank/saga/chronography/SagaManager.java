@@ -1,8 +1,10 @@
 package com.bank.saga.chronography;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 class SagaManager {
     private final SagaChronography chronography;
@@ -13,30 +15,48 @@ class SagaManager {
         this.services = services;
     }
 
-    public void executeSaga(String sagaId) throws InterruptedException, ExecutionException {
+    public CompletableFuture<Void> executeSaga(String sagaId) {
         chronography.registerSaga(sagaId, "Saga");
-        for (Service service : services) {
-            CompletableFuture<Void> future = service.execute();
-            chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.IN_PROGRESS);
-            future.thenAccept(v -> {
-                chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.COMPLETED);
-            }).exceptionally(ex -> {
-                chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.FAILED);
-                return null;
+        RequestContext context = new RequestContext(sagaId);
+        CompletableFuture<Void> saga = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < services.size(); i++) {
+            Service service = services.get(i);
+            RequestContext step = context.atStep(i);
+            saga = saga.thenCompose(v -> {
+                chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.IN_PROGRESS);
+                return service.execute(step).whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.COMPLETED);
+                    } else {
+                        chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.FAILED);
+                    }
+                });
             });
         }
+        return saga;
+    }
+
+    // Undoes a saga that completed
+    public CompletableFuture<Void> compensateSaga(String sagaId) {
+        return compensateSaga(sagaId, services.size());
     }
 
-    public void compensateSaga(String sagaId) throws InterruptedException, ExecutionException {
-        for (int i = services.size() - 1; i >= 0; i--) {
+    // Undoes the steps before failedStep, last first; the failed step itself took no effect
+    public CompletableFuture<Void> compensateSaga(String sagaId, int failedStep) {
+        RequestContext context = new RequestContext(sagaId);
+        CompletableFuture<Void> saga = CompletableFuture.completedFuture(null);
+        for (int i = failedStep - 1; i >= 0; i--) {
             Service service = services.get(i);
-            CompletableFuture<Void> future = service.compensate();
-            chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.ABORTED);
-            future.exceptionally(ex -> {
-                // Log error and continue compensation
-                System.out.println("Error during compensation: " + ex.getMessage());
-                return null;
+            RequestContext step = context.atStep(i);
+            saga = saga.thenCompose(v -> {
+                chronography.updateSagaStatus(sagaId, service.getClass().getSimpleName(), SagaChronography.SagaStatus.ABORTED);
+                return service.compensate(step).exceptionally(ex -> {
+                    // Log error and continue compensation
+                    System.out.println("Error during compensation: " + ex.getMessage());
+                    return null;
+                });
             });
         }
+        return saga;
     }
 }
@@ -0,0 +1,33 @@
+package com.bank.saga.orchestration;
+
+import com.bank.saga.BatchingService;
+import com.bank.saga.ServiceTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Usage: concurrent sagas sharing batched payment calls
+public class BatchedMain {
+    public static void main(String[] args) {
+        SagaOrchestrator orchestrator = new SagaOrchestrator(10);
+
+        BatchingService payments = new BatchingService(new PaymentBatchService(), 100, 5_000, ServiceTimer.shared());
+        orchestrator.registerService("order", new SagaOrchestrator.ServiceInfo("OrderService", new OrderService()));
+        orchestrator.registerService("payment", new SagaOrchestrator.ServiceInfo("PaymentService", payments));
+
+        List<CompletableFuture<Void>> sagas = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String sagaId = "SAGA-00" + i;
+            sagas.add(orchestrator.orchestrateSaga(sagaId, List.of("order", "payment"))
+                    .exceptionally(ex -> {
+                        System.out.println("Saga " + sagaId + " compensated: " + ex.getCause().getMessage());
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(sagas.toArray(new CompletableFuture<?>[0])).join();
+        System.out.println("Payment batches sent: " + payments.getBatches());
+
+        orchestrator.shutdown();
+    }
+}
@@ -1,18 +1,22 @@
 package com.bank.saga.orchestration;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+
 import java.util.concurrent.CompletableFuture;
 
 class InventoryService implements Service {
     @Override
-    public CompletableFuture<Void> execute(String sagaId) {
-        System.out.println("InventoryService: Reducing inventory for " + sagaId);
+    public CompletableFuture<Void> execute(RequestContext context) {
+        System.out.println("InventoryService: Reducing inventory for " + context.getSagaId());
         // Simulate inventory reduction
         return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public void compensate(String sagaId) {
-        System.out.println("InventoryService: Restoring inventory for " + sagaId);
+    public CompletableFuture<Void> compensate(RequestContext context) {
+        System.out.println("InventoryService: Restoring inventory for " + context.getSagaId());
         // Simulate inventory restoration
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -0,0 +1,34 @@
+package com.bank.saga.orchestration;
+
+import com.bank.saga.SagaWorkload;
+import com.bank.saga.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Orchestrated saga engine for the load generator; the orchestrator compensates failures itself
+public class OrchestratedSagaWorkload extends SagaWorkload {
+    private final SagaOrchestrator orchestrator;
+    private final List<String> steps = new ArrayList<>();
+
+    public OrchestratedSagaWorkload(int stepCount, long serviceLatencyMicros, int threads) {
+        orchestrator = new SagaOrchestrator(threads);
+        List<Service> services = services(stepCount, serviceLatencyMicros);
+        for (int i = 0; i < stepCount; i++) {
+            String name = "step-" + i;
+            orchestrator.registerService(name, new SagaOrchestrator.ServiceInfo(name, services.get(i)));
+            steps.add(name);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Void> execute(String sagaId) {
+        return orchestrator.orchestrateSaga(sagaId, steps);
+    }
+
+    @Override
+    public void close() {
+        orchestrator.shutdown();
+    }
+}
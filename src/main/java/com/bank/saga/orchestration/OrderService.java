@@ -1,19 +1,23 @@
 package com.bank.saga.orchestration;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+
 import java.util.concurrent.CompletableFuture;
 
 // Sample services
 class OrderService implements Service {
     @Override
-    public CompletableFuture<Void> execute(String sagaId) {
-        System.out.println("OrderService: Placing order for " + sagaId);
+    public CompletableFuture<Void> execute(RequestContext context) {
+        System.out.println("OrderService: Placing order for " + context.getSagaId());
         // Simulate order placement
         return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public void compensate(String sagaId) {
-        System.out.println("OrderService: Cancelling order for " + sagaId);
+    public CompletableFuture<Void> compensate(RequestContext context) {
+        System.out.println("OrderService: Cancelling order for " + context.getSagaId());
         // Simulate order cancellation
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -0,0 +1,34 @@
+package com.bank.saga.orchestration;
+
+import com.bank.saga.BatchResult;
+import com.bank.saga.BatchService;
+import com.bank.saga.RequestContext;
+import com.bank.saga.ServiceTimer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Sample batch backend: one round trip per batch, declines sagas whose id ends in "3"
+class PaymentBatchService implements BatchService {
+    private final ServiceTimer timer = ServiceTimer.shared();
+
+    @Override
+    public CompletableFuture<BatchResult> executeBatch(List<RequestContext> requests) {
+        System.out.println("PaymentService: Processing " + requests.size() + " payments in one batch");
+        return timer.delay(50).thenApply(v -> {
+            BatchResult result = BatchResult.success(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                if (requests.get(i).getSagaId().endsWith("3")) {
+                    result.fail(i, new IllegalStateException("Payment declined for " + requests.get(i).getSagaId()));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> compensateBatch(List<RequestContext> requests) {
+        System.out.println("PaymentService: Refunding " + requests.size() + " payments in one batch");
+        return timer.delay(50).thenApply(v -> BatchResult.success(requests.size()));
+    }
+}
@@ -1,18 +1,22 @@
 package com.bank.saga.orchestration;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+
 import java.util.concurrent.CompletableFuture;
 
 class PaymentService implements Service {
     @Override
-    public CompletableFuture<Void> execute(String sagaId) {
-        System.out.println("PaymentService: Processing payment for " + sagaId);
+    public CompletableFuture<Void> execute(RequestContext context) {
+        System.out.println("PaymentService: Processing payment for " + context.getSagaId());
         // Simulate payment processing
         return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public void compensate(String sagaId) {
-        System.out.println("PaymentService: Refunding payment for " + sagaId);
+    public CompletableFuture<Void> compensate(RequestContext context) {
+        System.out.println("PaymentService: Refunding payment for " + context.getSagaId());
         // Simulate refund
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -1,11 +1,16 @@
 package com.bank.saga.orchestration;
 
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 class SagaOrchestrator {
     private final Map<String, ServiceInfo> serviceRegistry;
@@ -20,46 +25,76 @@ class SagaOrchestrator {
         serviceRegistry.put(serviceName, serviceInfo);
     }
 
-    public CompletableFuture<Void> orchestrateSaga(String sagaId, String initialService) throws InterruptedException {
-        AtomicBoolean sagaCompleted = new AtomicBoolean(false);
+    public CompletableFuture<Void> orchestrateSaga(String sagaId, String initialService) {
+        return orchestrateSaga(sagaId, List.of(initialService));
+    }
 
-        return CompletableFuture.runAsync(() -> {
+    // Runs the services in order. The executor only starts the saga: later steps continue
+    // on whichever thread completes the previous step, so nothing waits on a service.
+    // If a step fails, every step before it is compensated in reverse order and the returned
+    // future fails with the step's error. The failed step itself took no effect (a declined
+    // payment was never taken), so it is not compensated.
+    public CompletableFuture<Void> orchestrateSaga(String sagaId, List<String> services) {
+        return CompletableFuture.supplyAsync(() -> {
             System.out.println("Starting saga orchestration for " + sagaId);
-            executeService(initialService, sagaId, sagaCompleted);
-        }, executor);
+            return executeService(services, 0, new RequestContext(sagaId));
+        }, executor).thenCompose(saga -> saga);
     }
 
-    private void executeService(String serviceName, String sagaId, AtomicBoolean sagaCompleted) {
-        if (!serviceRegistry.containsKey(serviceName)) {
-            throw new RuntimeException("Unknown service: " + serviceName);
+    private CompletableFuture<Void> executeService(List<String> services, int step, RequestContext context) {
+        if (step == services.size()) {
+            System.out.println("Saga " + context.getSagaId() + " completed successfully");
+            return CompletableFuture.completedFuture(null);
         }
-
+        String serviceName = services.get(step);
         ServiceInfo info = serviceRegistry.get(serviceName);
-        System.out.println("Executing service: " + serviceName + ", Saga ID: " + sagaId);
-
-        CompletableFuture<Void> future = info.execute(sagaId);
-        future.thenAccept(v -> {
-            System.out.println("Service " + serviceName + " completed successfully");
-            checkSagaCompletion(sagaId, sagaCompleted);
-        }).exceptionally(ex -> {
-            System.err.println("Error executing service " + serviceName + ": " + ex.getMessage());
-            compensateService(sagaId, serviceName);
-            return null;
-        });
-    }
-
-    private void checkSagaCompletion(String sagaId, AtomicBoolean sagaCompleted) {
-        if (sagaCompleted.compareAndSet(false, true)) {
-            System.out.println("Saga " + sagaId + " completed successfully");
+        CompletableFuture<Void> result;
+        if (info == null) {
+            result = CompletableFuture.failedFuture(new RuntimeException("Unknown service: " + serviceName));
         } else {
-            System.out.println("Saga " + sagaId + " already completed");
+            System.out.println("Executing service: " + serviceName + ", Saga ID: " + context.getSagaId());
+            result = call(() -> info.execute(context.atStep(step)));
         }
+
+        return result
+                .handle((v, ex) -> ex)
+                .thenCompose(ex -> {
+                    if (ex == null) {
+                        System.out.println("Service " + serviceName + " completed successfully");
+                        return executeService(services, step + 1, context);
+                    }
+                    // An expected saga outcome, reported to the caller through the returned future
+                    System.out.println("Error executing service " + serviceName + ": " + ex.getMessage());
+                    return compensateServices(services, step - 1, context)
+                            .thenRun(() -> {
+                                throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+                            });
+                });
     }
 
-    private void compensateService(String sagaId, String serviceName) {
-        System.out.println("Compensating service: " + serviceName + ", Saga ID: " + sagaId);
+    private CompletableFuture<Void> compensateServices(List<String> services, int step, RequestContext context) {
+        if (step < 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String serviceName = services.get(step);
+        System.out.println("Compensating service: " + serviceName + ", Saga ID: " + context.getSagaId());
         ServiceInfo info = serviceRegistry.get(serviceName);
-        info.compensate(sagaId);
+        return call(() -> info.compensate(context.atStep(step)))
+                .exceptionally(ex -> {
+                    System.err.println("Error compensating service " + serviceName + ": " + ex.getMessage());
+                    return null;
+                })
+                .thenCompose(v -> compensateServices(services, step - 1, context));
+    }
+
+    // A service that throws instead of returning a failed future fails its step the same way,
+    // so the steps before it are still compensated
+    private static CompletableFuture<Void> call(Supplier<CompletableFuture<Void>> service) {
+        try {
+            return service.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     public void shutdown() {
@@ -68,31 +103,23 @@ class SagaOrchestrator {
 
     static class ServiceInfo {
         private final String serviceName;
-        private final Function<String, CompletableFuture<Void>> executeFunction;
-        private final BiConsumer<String, Throwable> compensationFunction;
+        private final Service service;
 
-        public ServiceInfo(String serviceName, Function<String, CompletableFuture<Void>> executeFunction, BiConsumer<String, Throwable> compensationFunction) {
+        public ServiceInfo(String serviceName, Service service) {
             this.serviceName = serviceName;
-            this.executeFunction = executeFunction;
-            this.compensationFunction = compensationFunction;
+            this.service = service;
         }
 
-        public CompletableFuture<Void> execute(String sagaId) {
-            return executeFunction.apply(sagaId);
+        public String getServiceName() {
+            return serviceName;
         }
 
-        public void compensate(String sagaId) {
-            compensationFunction.accept(sagaId, null);
+        public CompletableFuture<Void> execute(RequestContext context) {
+            return service.execute(context);
         }
-    }
 
-    @FunctionalInterface
-    interface Function<T, R> {
-        R apply(T t);
-    }
-
-    @FunctionalInterface
-    interface BiConsumer<T, U> {
-        void accept(T t, U u);
+        public CompletableFuture<Void> compensate(RequestContext context) {
+            return service.compensate(context);
+        }
     }
 }
@@ -0,0 +1,133 @@
+package com.bank.threephasecommit;
+
+import com.bank.record.RecordLayout;
+import com.bank.transport.Message;
+import com.bank.transport.MessageHandler;
+import com.bank.transport.MessageType;
+import com.bank.transport.Transport;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+// Three-phase coordinator over a Transport. Each round (votes, then pre-commit acks) is
+// fanned out to all participants in parallel and bounded by the same timeout. A missing
+// or negative vote aborts the transaction; after that, a missing or negative ack commits it,
+// because once PRE_COMMIT has gone out some participant may already be pre-committed and
+// must not be told to abort.
+class NetworkCoordinator implements MessageHandler {
+    private final int node;
+    private final Transport transport;
+    private final long timeoutMillis;
+    private final List<Integer> participants = new ArrayList<>();
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    public NetworkCoordinator(int node, Transport transport, long timeoutMillis) {
+        this.node = node;
+        this.transport = transport;
+        this.timeoutMillis = timeoutMillis;
+        transport.register(node, this);
+    }
+
+    public void addParticipant(int participantNode) {
+        participants.add(participantNode);
+    }
+
+    public CompletableFuture<Boolean> commit(String txId) {
+        RecordLayout.checkId(txId);
+        Transaction tx = new Transaction(txId);
+        transactions.put(txId, tx);
+        startRound(tx, null, State.PREPARED, MessageType.PREPARE);
+        return tx.outcome;
+    }
+
+    // Rounds only move forward: a round is started, and a transaction finished, only while it
+    // is still in the round the caller saw, so a timeout racing a reply cannot send PRE_COMMIT
+    // after ABORT or ABORT after PRE_COMMIT
+    private void startRound(Transaction tx, State from, State round, MessageType request) {
+        synchronized (tx) {
+            if (tx.state != from || !transactions.containsKey(tx.txId)) {
+                return;
+            }
+            tx.state = round;
+            tx.pending.clear();
+            tx.pending.addAll(participants);
+            if (tx.timeout != null) {
+                tx.timeout.cancel(false);
+            }
+            State onTimeout = round == State.PREPARING ? State.COMMITTED : State.ABORTED;
+            tx.timeout = timer.schedule(() -> finish(tx, round, onTimeout), timeoutMillis, TimeUnit.MILLISECONDS);
+            for (int participant : participants) {
+                transport.send(new Message(request, tx.txId, node, participant));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        Transaction tx = transactions.get(message.getTxId());
+        if (tx == null) {
+            return; // late reply for a transaction that is already decided
+        }
+        switch (message.getType()) {
+            case VOTE_COMMIT:
+                if (lastReply(tx, State.PREPARED, message.getFrom())) {
+                    startRound(tx, State.PREPARED, State.PREPARING, MessageType.PRE_COMMIT);
+                }
+                break;
+            case ACK:
+                if (lastReply(tx, State.PREPARING, message.getFrom())) {
+                    finish(tx, State.PREPARING, State.COMMITTED);
+                }
+                break;
+            case VOTE_ABORT:
+                // Once PRE_COMMIT is out a refusal counts as a missing ack, which commits
+                finish(tx, State.PREPARED, State.ABORTED);
+                break;
+            default:
+                System.err.println("Unexpected message: " + message);
+        }
+    }
+
+    // Replies are counted per participant, so a duplicated message cannot stand in for another's
+    private boolean lastReply(Transaction tx, State round, int from) {
+        synchronized (tx) {
+            return tx.state == round && tx.pending.remove(from) && tx.pending.isEmpty();
+        }
+    }
+
+    private void finish(Transaction tx, State round, State decision) {
+        synchronized (tx) {
+            if (tx.state != round || transactions.remove(tx.txId) == null) {
+                return;
+            }
+            tx.state = decision;
+            tx.timeout.cancel(false);
+            MessageType type = decision == State.COMMITTED ? MessageType.COMMIT : MessageType.ABORT;
+            for (int participant : participants) {
+                transport.send(new Message(type, tx.txId, node, participant));
+            }
+        }
+        tx.outcome.complete(decision == State.COMMITTED);
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private static class Transaction {
+        private final String txId;
+        private final Set<Integer> pending = new HashSet<>();
+        private final CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        private volatile State state;
+        private ScheduledFuture<?> timeout;
+
+        Transaction(String txId) {
+            this.txId = txId;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bank.threephasecommit;
+
+import com.bank.transport.LatencyDistribution;
+import com.bank.transport.NioLoopbackTransport;
+import com.bank.transport.SimulatedNetwork;
+import com.bank.transport.Transport;
+
+// Usage: the same protocol over a simulated network and over loopback sockets
+public class NetworkedThreePhaseCommit {
+    public static void main(String[] args) {
+        try (SimulatedNetwork network = new SimulatedNetwork(42)) {
+            network.setLatency(LatencyDistribution.exponential(200, 300)).setLinger(50);
+            NetworkCoordinator coord = setUp(network);
+
+            System.out.println("TX-1 committed: " + coord.commit("TX-1").join());
+
+            // P2 is cut off: its vote never arrives and the coordinator times out
+            network.isolate(2);
+            System.out.println("TX-2 committed: " + coord.commit("TX-2").join());
+            network.heal();
+
+            System.out.println("Messages sent: " + network.getSent() + ", batches: " + network.getBatches()
+                    + ", dropped: " + network.getDropped());
+            coord.shutdown();
+        }
+
+        try (NioLoopbackTransport loopback = new NioLoopbackTransport()) {
+            NetworkCoordinator coord = setUp(loopback);
+            System.out.println("TX-3 committed: " + coord.commit("TX-3").join());
+            coord.shutdown();
+        }
+    }
+
+    private static NetworkCoordinator setUp(Transport transport) {
+        NetworkCoordinator coord = new NetworkCoordinator(0, transport, 500);
+        new ParticipantNode(1, new Participant("P1"), transport);
+        new ParticipantNode(2, new Participant("P2"), transport);
+        coord.addParticipant(1);
+        coord.addParticipant(2);
+        return coord;
+    }
+}
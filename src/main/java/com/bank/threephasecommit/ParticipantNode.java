@@ -0,0 +1,38 @@
+package com.bank.threephasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageHandler;
+import com.bank.transport.MessageType;
+import com.bank.transport.Transport;
+
+// Puts a Participant on the network: protocol messages become calls on the participant
+class ParticipantNode implements MessageHandler {
+    private final Participant participant;
+    private final Transport transport;
+
+    public ParticipantNode(int node, Participant participant, Transport transport) {
+        this.participant = participant;
+        this.transport = transport;
+        transport.register(node, this);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        switch (message.getType()) {
+            case PREPARE:
+                transport.send(message.reply(participant.prepare(message.getTxId()) ? MessageType.VOTE_COMMIT : MessageType.VOTE_ABORT));
+                break;
+            case PRE_COMMIT:
+                transport.send(message.reply(participant.preparePreparing(message.getTxId()) ? MessageType.ACK : MessageType.VOTE_ABORT));
+                break;
+            case COMMIT:
+                participant.commit(message.getTxId());
+                break;
+            case ABORT:
+                participant.abort(message.getTxId());
+                break;
+            default:
+                System.err.println("Unexpected message: " + message);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.threephasecommit;
+
+import com.bank.loadgen.CommitProtocolWorkload;
+
+import java.util.concurrent.CompletableFuture;
+
+// 3PC for the load generator
+public class ThreePhaseCommitWorkload extends CommitProtocolWorkload {
+    private final NetworkCoordinator coordinator;
+
+    public ThreePhaseCommitWorkload(int participants, long networkLatencyMicros, long timeoutMillis) {
+        super(participants, networkLatencyMicros);
+        coordinator = new NetworkCoordinator(0, network, timeoutMillis);
+        for (int i = 1; i <= participants; i++) {
+            new ParticipantNode(i, new Participant("P" + i, resources.get(i - 1)), network);
+            coordinator.addParticipant(i);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Boolean> commit(String txId) {
+        return coordinator.commit(txId);
+    }
+
+    @Override
+    public void close() {
+        coordinator.shutdown();
+        super.close();
+    }
+}
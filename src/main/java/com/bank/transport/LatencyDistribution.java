@@ -0,0 +1,25 @@
+package com.bank.transport;
+
+import java.util.Random;
+
+@FunctionalInterface
+public interface LatencyDistribution {
+    long sampleMicros(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution constant(long micros) {
+        return random -> micros;
+    }
+
+    static LatencyDistribution uniform(long minMicros, long maxMicros) {
+        return random -> minMicros + (long) (random.nextDouble() * (maxMicros - minMicros));
+    }
+
+    // Long tail, as seen on shared networks
+    static LatencyDistribution exponential(long minMicros, long meanExtraMicros) {
+        return random -> minMicros + (long) (-Math.log(1 - random.nextDouble()) * meanExtraMicros);
+    }
+}
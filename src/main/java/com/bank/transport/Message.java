@@ -0,0 +1,108 @@
+package com.bank.transport;
+
+import com.bank.record.RecordKind;
+import com.bank.record.RecordReader;
+import com.bank.record.RecordWriter;
+
+public final class Message {
+    public static final int NO_VALUE = 0;
+
+    private final MessageType type;
+    private final String txId;
+    private final int from;
+    private final int to;
+    private final long sentAt;
+    // Consensus fields, unused by plain 2PC/3PC
+    private final int instance;
+    private final int ballot;
+    private final int value;
+    private final int acceptedBallot;
+
+    public Message(MessageType type, String txId, int from, int to) {
+        this(type, txId, from, to, 0, 0, NO_VALUE, 0);
+    }
+
+    public Message(MessageType type, String txId, int from, int to, int instance, int ballot, int value, int acceptedBallot) {
+        this(type, txId, from, to, System.currentTimeMillis(), instance, ballot, value, acceptedBallot);
+    }
+
+    private Message(MessageType type, String txId, int from, int to, long sentAt,
+                    int instance, int ballot, int value, int acceptedBallot) {
+        this.type = type;
+        this.txId = txId;
+        this.from = from;
+        this.to = to;
+        this.sentAt = sentAt;
+        this.instance = instance;
+        this.ballot = ballot;
+        this.value = value;
+        this.acceptedBallot = acceptedBallot;
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    public String getTxId() {
+        return txId;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    public int getInstance() {
+        return instance;
+    }
+
+    public int getBallot() {
+        return ballot;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int getAcceptedBallot() {
+        return acceptedBallot;
+    }
+
+    public Message reply(MessageType type) {
+        return new Message(type, txId, to, from);
+    }
+
+    public void writeTo(RecordWriter writer) {
+        writer.clear()
+                .kind(RecordKind.MESSAGE)
+                .state(type)
+                .id(txId)
+                .node(from)
+                .peer(to)
+                .startTime(sentAt)
+                .step(instance)
+                .epoch(ballot)
+                .flags(value)
+                .extra(acceptedBallot);
+    }
+
+    public static Message readFrom(RecordReader reader) {
+        if (!reader.isKind(RecordKind.MESSAGE)) {
+            throw new IllegalArgumentException("Not a message record: " + reader);
+        }
+        return new Message(reader.state(MessageType.values()), reader.id(), reader.node(), reader.peer(), reader.startTime(),
+                reader.step(), reader.epoch(), reader.flags(), reader.extra());
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + txId + ") " + from + " -> " + to;
+    }
+}
@@ -0,0 +1,6 @@
+package com.bank.transport;
+
+@FunctionalInterface
+public interface MessageHandler {
+    void onMessage(Message message);
+}
@@ -0,0 +1,17 @@
+package com.bank.transport;
+
+// Ordinals are written into records as the state byte: only append new types
+public enum MessageType {
+    PREPARE,
+    VOTE_COMMIT,
+    VOTE_ABORT,
+    PRE_COMMIT,
+    ACK,
+    COMMIT,
+    ABORT,
+    // Paxos Commit: instance = participant, ballot 0 is the participant's own vote
+    PHASE_1A,
+    PHASE_1B,
+    PHASE_2A,
+    PHASE_2B
+}
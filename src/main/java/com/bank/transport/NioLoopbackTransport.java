@@ -0,0 +1,287 @@
+package com.bank.transport;
+
+import com.bank.record.RecordLayout;
+import com.bank.record.RecordReader;
+import com.bank.record.RecordWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Real sockets on 127.0.0.1, one listening port per registered node. A selector thread
+// reads incoming frames and a writer thread sends outgoing ones; every message queued for
+// a destination since its last write goes out in the same frame:
+//
+//   int count | count * RecordLayout.RECORD_LENGTH bytes of MESSAGE records
+public class NioLoopbackTransport implements Transport {
+    private static final int MAX_BATCH = 256;
+    private static final int FRAME_HEADER = Integer.BYTES;
+
+    private final Selector selector;
+    private final Thread readerThread;
+    private final Thread writerThread;
+    private final Map<Integer, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final BlockingQueue<Endpoint> dirty = new LinkedBlockingQueue<>();
+    private final Queue<ServerSocketChannel> pendingAccepts = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(FRAME_HEADER + MAX_BATCH * RecordLayout.RECORD_LENGTH);
+    private final RecordWriter writer = new RecordWriter();
+    private final RecordReader reader = new RecordReader();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    public NioLoopbackTransport() {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.readerThread = new Thread(this::read, "nio-loopback-reader");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+        this.writerThread = new Thread(this::write, "nio-loopback-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void register(int node, MessageHandler handler) {
+        try {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.configureBlocking(false);
+            endpoints.put(node, new Endpoint(handler, (InetSocketAddress) server.getLocalAddress()));
+            pendingAccepts.add(server);
+            selector.wakeup();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void send(Message message) {
+        Endpoint destination = endpoints.get(message.getTo());
+        if (destination == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+        destination.outbox.add(message);
+        if (destination.scheduled.compareAndSet(false, true)) {
+            dirty.add(destination);
+        }
+    }
+
+    private void read() {
+        while (running) {
+            try {
+                selector.select();
+                registerAccepts();
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (key.isAcceptable()) {
+                        accept(key);
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    System.err.println("NIO transport error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void registerAccepts() throws IOException {
+        ServerSocketChannel server;
+        while ((server = pendingAccepts.poll()) != null) {
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocate(writeBuffer.capacity()));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            read = -1; // reset by the sender; its unfinished frame is discarded below
+        }
+        if (read < 0) {
+            key.cancel();
+            channel.close();
+            return;
+        }
+        buffer.flip();
+        while (buffer.remaining() >= FRAME_HEADER) {
+            int count = buffer.getInt(buffer.position());
+            if (count <= 0 || count > MAX_BATCH) {
+                // The stream is out of step and there is no way to find the next frame
+                System.err.println("NIO transport error: bad frame header " + count + ", closing connection");
+                key.cancel();
+                channel.close();
+                return;
+            }
+            int frameLength = FRAME_HEADER + count * RecordLayout.RECORD_LENGTH;
+            if (buffer.remaining() < frameLength) {
+                break;
+            }
+            int base = buffer.position() + FRAME_HEADER;
+            for (int i = 0; i < count; i++) {
+                Message message;
+                try {
+                    message = Message.readFrom(reader.wrap(buffer, base + RecordLayout.offsetOf(i)));
+                } catch (RuntimeException e) {
+                    dropped.incrementAndGet();
+                    System.err.println("NIO transport error, dropped undecodable record: " + e.getMessage());
+                    continue;
+                }
+                dispatch(message);
+            }
+            buffer.position(buffer.position() + frameLength);
+        }
+        buffer.compact();
+    }
+
+    private void dispatch(Message message) {
+        Endpoint endpoint = endpoints.get(message.getTo());
+        if (endpoint == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+        try {
+            endpoint.handler.onMessage(message);
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + message + ": " + e.getMessage());
+        }
+    }
+
+    private void write() {
+        while (running) {
+            try {
+                flush(dirty.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void flush(Endpoint endpoint) {
+        endpoint.scheduled.set(false);
+        while (!endpoint.outbox.isEmpty()) {
+            writeBuffer.clear();
+            int count = 0;
+            Message message;
+            while (count < MAX_BATCH && (message = endpoint.outbox.poll()) != null) {
+                try {
+                    message.writeTo(writer.wrap(writeBuffer, FRAME_HEADER + RecordLayout.offsetOf(count)));
+                    count++;
+                } catch (RuntimeException e) {
+                    // e.g. an id the record format cannot hold; the next message reuses the slot
+                    dropped.incrementAndGet();
+                    System.err.println("NIO transport error, dropped " + message + ": " + e.getMessage());
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            writeBuffer.putInt(0, count);
+            writeBuffer.limit(FRAME_HEADER + count * RecordLayout.RECORD_LENGTH);
+            try {
+                SocketChannel channel = endpoint.connection();
+                while (writeBuffer.hasRemaining()) {
+                    channel.write(writeBuffer);
+                }
+            } catch (IOException e) {
+                // The reader discards a frame cut short by a closed connection, so none of it
+                // arrived. Drop the broken channel; the next frame reconnects.
+                dropped.addAndGet(count);
+                endpoint.disconnect();
+                if (running) {
+                    System.err.println("NIO transport error, dropped " + count + " messages: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        writerThread.interrupt();
+        try {
+            readerThread.join(1000);
+            writerThread.join(1000);
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            for (Endpoint endpoint : endpoints.values()) {
+                if (endpoint.channel != null) {
+                    endpoint.channel.close();
+                }
+            }
+            selector.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Endpoint {
+        private final MessageHandler handler;
+        private final InetSocketAddress address;
+        private final Queue<Message> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private SocketChannel channel;
+
+        Endpoint(MessageHandler handler, InetSocketAddress address) {
+            this.handler = handler;
+            this.address = address;
+        }
+
+        // Outgoing connection, opened lazily and written in blocking mode by the writer thread
+        SocketChannel connection() throws IOException {
+            if (channel == null) {
+                channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            return channel;
+        }
+
+        void disconnect() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already broken
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.bank.transport;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory network for exercising the protocols under latency, loss, reordering and
+// partitions. Messages are batched per link (source -> destination): the first message
+// on an idle link starts a linger window and everything queued before it closes travels
+// as one packet with a single latency sample. Links are FIFO unless a batch is picked
+// for reordering. All deliveries happen on one thread, so handlers never run concurrently.
+public class SimulatedNetwork implements Transport {
+    private final Map<Integer, MessageHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<Long, Link> links = new ConcurrentHashMap<>();
+    // Partition group per node; nodes without an entry form group 0, the rest of the network
+    private final Map<Integer, Integer> groups = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGroup = new AtomicInteger(1);
+    private final ScheduledExecutorService scheduler;
+    private final Random random;
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile long lingerMicros = 0;
+    private volatile int maxBatchSize = 64;
+    private volatile double dropRate = 0;
+    private volatile double reorderRate = 0;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public SimulatedNetwork(long seed) {
+        this.random = new Random(seed);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simulated-network");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SimulatedNetwork setLatency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public SimulatedNetwork setLinger(long micros) {
+        this.lingerMicros = micros;
+        return this;
+    }
+
+    public SimulatedNetwork setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public SimulatedNetwork setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+        return this;
+    }
+
+    public SimulatedNetwork setReorderRate(double reorderRate) {
+        this.reorderRate = reorderRate;
+        return this;
+    }
+
+    // Cuts every link to and from each given node, including links between them.
+    // Cumulative: isolate(1); isolate(2) leaves 1 and 2 unable to reach anyone.
+    public void isolate(int... nodes) {
+        for (int node : nodes) {
+            groups.put(node, nextGroup.getAndIncrement());
+        }
+    }
+
+    // Splits the network: nodes in the same set can reach each other and nobody else; nodes
+    // in no set stay together as the rest of the network. Replaces any earlier partition.
+    @SafeVarargs
+    public final void partition(Set<Integer>... sides) {
+        groups.clear();
+        for (Set<Integer> side : sides) {
+            int group = nextGroup.getAndIncrement();
+            for (int node : side) {
+                groups.put(node, group);
+            }
+        }
+    }
+
+    public void heal() {
+        groups.clear();
+    }
+
+    @Override
+    public void register(int node, MessageHandler handler) {
+        handlers.put(node, handler);
+    }
+
+    @Override
+    public void send(Message message) {
+        sent.incrementAndGet();
+        Link link = links.computeIfAbsent(linkKey(message.getFrom(), message.getTo()), k -> new Link());
+        List<Message> full = null;
+        boolean first;
+        synchronized (link) {
+            link.pending.add(message);
+            first = link.pending.size() == 1;
+            if (link.pending.size() >= maxBatchSize) {
+                full = link.take();
+            }
+        }
+        if (full != null) {
+            List<Message> batch = full;
+            scheduler.execute(() -> transmit(link, batch));
+        } else if (first) {
+            scheduler.schedule(() -> flush(link), lingerMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void flush(Link link) {
+        List<Message> batch;
+        synchronized (link) {
+            if (link.pending.isEmpty()) {
+                return; // already sent because the batch filled up
+            }
+            batch = link.take();
+        }
+        transmit(link, batch);
+    }
+
+    // Runs on the network thread only, which keeps the random sequence reproducible
+    private void transmit(Link link, List<Message> batch) {
+        batches.incrementAndGet();
+        Message head = batch.get(0);
+        if (isPartitioned(head.getFrom(), head.getTo()) || random.nextDouble() < dropRate) {
+            dropped.addAndGet(batch.size());
+            return;
+        }
+        long now = System.nanoTime();
+        long deliverAt = now + TimeUnit.MICROSECONDS.toNanos(latency.sampleMicros(random));
+        if (random.nextDouble() < reorderRate) {
+            // Overtaken by whatever is sent next on this link
+            deliverAt += TimeUnit.MICROSECONDS.toNanos(latency.sampleMicros(random));
+        } else {
+            deliverAt = Math.max(deliverAt, link.lastDelivery);
+            link.lastDelivery = deliverAt;
+        }
+        scheduler.schedule(() -> deliver(batch), deliverAt - now, TimeUnit.NANOSECONDS);
+    }
+
+    private void deliver(List<Message> batch) {
+        for (Message message : batch) {
+            MessageHandler handler = handlers.get(message.getTo());
+            // Partitions also swallow packets that were already in flight
+            if (handler == null || isPartitioned(message.getFrom(), message.getTo())) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            delivered.incrementAndGet();
+            try {
+                handler.onMessage(message);
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + message + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isPartitioned(int from, int to) {
+        return groups.getOrDefault(from, 0).intValue() != groups.getOrDefault(to, 0).intValue();
+    }
+
+    private static long linkKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        // Let a delivery already in progress finish before the caller moves on
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Link {
+        private List<Message> pending = new ArrayList<>();
+        private long lastDelivery;
+
+        private List<Message> take() {
+            List<Message> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        }
+    }
+}
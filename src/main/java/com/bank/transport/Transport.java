@@ -0,0 +1,15 @@
+package com.bank.transport;
+
+// Carries protocol messages between coordinator and participant nodes.
+// Messages queued for the same destination are delivered as one batch, in order,
+// unless the implementation deliberately reorders them. Messages for a node that is not
+// registered or cannot be reached are dropped and counted, never thrown back to the sender:
+// the protocols recover through their timeouts.
+public interface Transport extends AutoCloseable {
+    void register(int node, MessageHandler handler);
+
+    void send(Message message);
+
+    @Override
+    void close();
+}
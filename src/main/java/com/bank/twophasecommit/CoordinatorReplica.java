@@ -0,0 +1,352 @@
+package com.bank.twophasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageHandler;
+import com.bank.transport.MessageType;
+import com.bank.transport.Transport;
+
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// One member of a Paxos Commit coordinator group (Gray & Lamport, "Consensus on
+// Transaction Commit"). Every replica is an acceptor and a learner for one Paxos instance
+// per participant and transaction; participants send their vote straight to the acceptors
+// as the ballot 0 phase 2a message. Every replica learns the outcome, but only the leader
+// announces it, so losing the leader no longer leaves participants blocked.
+//
+// A replica that has not seen the outcome announced after the timeout takes over: it
+// announces what it learned or, if some instances are still open, runs them with a higher
+// ballot. Instances nobody accepted a value for are decided ABORTED, exactly as a missing
+// vote is treated in plain 2PC.
+//
+// Participants acknowledge the outcome to every replica; once all of them have, the replica
+// forgets the transaction. Until then it re-sends the outcome to the participants that have
+// not acknowledged it, so a lost COMMIT or ABORT cannot leave a prepared participant in doubt. Every replica is told about a transaction in begin(), before any
+// participant votes, so messages for a transaction a replica does not know are late copies
+// for one it already forgot and are ignored.
+class CoordinatorReplica implements MessageHandler {
+    private final int node;
+    private final int index;
+    private final List<Integer> replicas;
+    private final List<Integer> participants;
+    private final Transport transport;
+    private final ScheduledExecutorService timer;
+    private final long timeoutMillis;
+    private final BiConsumer<String, Boolean> onDecision;
+    private final Map<String, Transaction> transactions = new HashMap<>();
+    // Outcomes outlive the per-instance state until every participant has acknowledged them
+    private final Map<String, Outcome> outcomes = new HashMap<>();
+    private volatile boolean crashed;
+
+    public CoordinatorReplica(int node, List<Integer> replicas, List<Integer> participants, Transport transport,
+                              ScheduledExecutorService timer, long timeoutMillis, BiConsumer<String, Boolean> onDecision) {
+        this.node = node;
+        this.index = replicas.indexOf(node);
+        this.replicas = replicas;
+        this.participants = participants;
+        this.transport = transport;
+        this.timer = timer;
+        this.timeoutMillis = timeoutMillis;
+        this.onDecision = onDecision;
+        transport.register(node, this);
+    }
+
+    // Called on every replica, backups first: arms the recovery timer and, on the leader,
+    // asks the participants to vote
+    public synchronized void begin(String txId, boolean leader) {
+        if (crashed) {
+            return;
+        }
+        Transaction tx = transaction(txId);
+        if (leader) {
+            tx.leading = true;
+            for (int participant : participants) {
+                transport.send(new Message(MessageType.PREPARE, txId, node, participant));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onMessage(Message message) {
+        if (crashed) {
+            return;
+        }
+        Outcome outcome = outcomes.get(message.getTxId());
+        if (outcome != null) {
+            if (message.getType() == MessageType.PHASE_1A) {
+                // A replica is trying to recover a transaction we already know the outcome of
+                transport.send(message.reply(outcome.decision == State.COMMITTED ? MessageType.COMMIT : MessageType.ABORT));
+            } else if (message.getType() == MessageType.ACK) {
+                acknowledged(message.getTxId(), outcome, message.getFrom());
+            }
+            return;
+        }
+        Transaction tx = transactions.get(message.getTxId());
+        if (tx == null) {
+            return; // already forgotten, or begun while this replica was down
+        }
+        switch (message.getType()) {
+            case PHASE_1A:
+                onPhase1a(tx, message);
+                break;
+            case PHASE_1B:
+                onPhase1b(tx, message);
+                break;
+            case PHASE_2A:
+                onPhase2a(tx, message);
+                break;
+            case PHASE_2B:
+                onPhase2b(tx, message);
+                break;
+            case COMMIT:
+                learn(tx, State.COMMITTED);
+                finish(tx);
+                break;
+            case ABORT:
+                learn(tx, State.ABORTED);
+                finish(tx);
+                break;
+            case ACK:
+                // A participant only acts on a decided outcome, so its ack carries that outcome
+                learn(tx, fromValue(message.getValue()));
+                finish(tx);
+                acknowledged(tx.txId, outcomes.get(tx.txId), message.getFrom());
+                break;
+            default:
+                System.err.println("Unexpected message: " + message);
+        }
+    }
+
+    // Acceptor role
+
+    private void onPhase1a(Transaction tx, Message message) {
+        Instance instance = tx.instance(message.getInstance());
+        if (message.getBallot() > instance.promised) {
+            instance.promised = message.getBallot();
+            transport.send(new Message(MessageType.PHASE_1B, tx.txId, node, message.getFrom(),
+                    message.getInstance(), message.getBallot(), instance.acceptedValue, instance.acceptedBallot));
+        }
+    }
+
+    private void onPhase2a(Transaction tx, Message message) {
+        Instance instance = tx.instance(message.getInstance());
+        if (message.getBallot() >= instance.promised) {
+            instance.promised = message.getBallot();
+            instance.acceptedBallot = message.getBallot();
+            instance.acceptedValue = message.getValue();
+            for (int replica : replicas) {
+                transport.send(new Message(MessageType.PHASE_2B, tx.txId, node, replica,
+                        message.getInstance(), message.getBallot(), message.getValue(), message.getBallot()));
+            }
+        }
+    }
+
+    // Learner role
+
+    private void onPhase2b(Transaction tx, Message message) {
+        Instance instance = tx.instance(message.getInstance());
+        if (instance.learned != Message.NO_VALUE) {
+            return;
+        }
+        // Counted per acceptor, so a duplicated 2b cannot make up a majority
+        Set<Integer> acceptors = instance.votes.computeIfAbsent(message.getBallot(), b -> new HashSet<>());
+        if (acceptors.add(message.getFrom()) && acceptors.size() == majority()) {
+            instance.learned = message.getValue();
+            tx.learnedCount++;
+            if (instance.learned == toValue(State.ABORTED)) {
+                learn(tx, State.ABORTED);
+            } else if (tx.learnedCount == participants.size()) {
+                learn(tx, State.COMMITTED);
+            }
+        }
+    }
+
+    // Recovery: take over every undecided instance with a ballot only this replica uses
+
+    private void recover(Transaction tx) {
+        synchronized (this) {
+            if (crashed || outcomes.containsKey(tx.txId)) {
+                return;
+            }
+            if (tx.decision != null) {
+                announce(tx); // the leader learned it too but never said so
+                return;
+            }
+            tx.leading = true;
+            tx.ballot = (tx.ballot / replicas.size() + 1) * replicas.size() + index + 1;
+            System.out.println("Replica " + node + " taking over " + tx.txId + " with ballot " + tx.ballot);
+            tx.recovery.clear();
+            for (int participant : participants) {
+                if (tx.instance(participant).learned == Message.NO_VALUE) {
+                    for (int replica : replicas) {
+                        transport.send(new Message(MessageType.PHASE_1A, tx.txId, node, replica, participant, tx.ballot, Message.NO_VALUE, 0));
+                    }
+                }
+            }
+            tx.timeout = timer.schedule(() -> recover(tx), timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onPhase1b(Transaction tx, Message message) {
+        if (message.getBallot() != tx.ballot) {
+            return; // promise for a ballot this replica has since abandoned
+        }
+        Promises promises = tx.recovery.computeIfAbsent(message.getInstance(), i -> new Promises());
+        if (!promises.acceptors.add(message.getFrom())) {
+            return;
+        }
+        if (message.getValue() != Message.NO_VALUE && message.getAcceptedBallot() >= promises.highestBallot) {
+            promises.highestBallot = message.getAcceptedBallot();
+            promises.value = message.getValue();
+        }
+        if (promises.acceptors.size() == majority()) {
+            // Nobody accepted a vote: the participant may never have voted, so abort
+            int value = promises.value == Message.NO_VALUE ? toValue(State.ABORTED) : promises.value;
+            for (int replica : replicas) {
+                transport.send(new Message(MessageType.PHASE_2A, tx.txId, node, replica, message.getInstance(), tx.ballot, value, 0));
+            }
+        }
+    }
+
+    private void learn(Transaction tx, State decision) {
+        if (tx.decision != null) {
+            return;
+        }
+        tx.decision = decision;
+        onDecision.accept(tx.txId, decision == State.COMMITTED);
+        if (tx.leading) {
+            announce(tx);
+        }
+    }
+
+    private void announce(Transaction tx) {
+        MessageType type = tx.decision == State.COMMITTED ? MessageType.COMMIT : MessageType.ABORT;
+        for (int participant : participants) {
+            transport.send(new Message(type, tx.txId, node, participant));
+        }
+        for (int replica : replicas) {
+            if (replica != node) {
+                transport.send(new Message(type, tx.txId, node, replica));
+            }
+        }
+        finish(tx);
+    }
+
+    private void finish(Transaction tx) {
+        if (tx.timeout != null) {
+            tx.timeout.cancel(false);
+        }
+        transactions.remove(tx.txId);
+        Outcome outcome = new Outcome(tx.decision);
+        outcomes.put(tx.txId, outcome);
+        scheduleResend(tx.txId, outcome);
+    }
+
+    private void acknowledged(String txId, Outcome outcome, int participant) {
+        if (outcome.acked.add(participant) && outcome.acked.size() == participants.size()) {
+            outcomes.remove(txId);
+            outcome.resend.cancel(false);
+        }
+    }
+
+    // Backups wait longer, as for recovery, so the live replica with the lowest index does
+    // most of the re-sending
+    private void scheduleResend(String txId, Outcome outcome) {
+        outcome.resend = timer.schedule(() -> resend(txId, outcome), timeoutMillis * (index + 1), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void resend(String txId, Outcome outcome) {
+        if (crashed || outcomes.get(txId) != outcome) {
+            return;
+        }
+        MessageType type = outcome.decision == State.COMMITTED ? MessageType.COMMIT : MessageType.ABORT;
+        for (int participant : participants) {
+            if (!outcome.acked.contains(participant)) {
+                transport.send(new Message(type, txId, node, participant));
+            }
+        }
+        scheduleResend(txId, outcome);
+    }
+
+    // Outcomes this replica still remembers, i.e. not yet acknowledged by every participant
+    public synchronized int getRetainedOutcomes() {
+        return outcomes.size();
+    }
+
+    private Transaction transaction(String txId) {
+        return transactions.computeIfAbsent(txId, id -> {
+            Transaction tx = new Transaction(id);
+            // Backups wait longer than the leader so they rarely compete for the same ballot
+            tx.timeout = timer.schedule(() -> recover(tx), timeoutMillis * (index + 1), TimeUnit.MILLISECONDS);
+            return tx;
+        });
+    }
+
+    private int majority() {
+        return replicas.size() / 2 + 1;
+    }
+
+    public void crash() {
+        crashed = true;
+    }
+
+    public boolean isCrashed() {
+        return crashed;
+    }
+
+    static int toValue(State state) {
+        return state.ordinal() + 1;
+    }
+
+    static State fromValue(int value) {
+        return State.values()[value - 1];
+    }
+
+    private static class Transaction {
+        private final String txId;
+        private final Map<Integer, Instance> instances = new HashMap<>();
+        private final Map<Integer, Promises> recovery = new HashMap<>();
+        private int learnedCount;
+        private int ballot;
+        private boolean leading;
+        private State decision;
+        private ScheduledFuture<?> timeout;
+
+        Transaction(String txId) {
+            this.txId = txId;
+        }
+
+        Instance instance(int participant) {
+            return instances.computeIfAbsent(participant, p -> new Instance());
+        }
+    }
+
+    private static class Instance {
+        // acceptor
+        private int promised;
+        private int acceptedBallot = -1;
+        private int acceptedValue = Message.NO_VALUE;
+        // learner: acceptors that sent phase 2b, per ballot
+        private final Map<Integer, Set<Integer>> votes = new HashMap<>();
+        private int learned = Message.NO_VALUE;
+    }
+
+    private static class Outcome {
+        private final State decision;
+        private final Set<Integer> acked = new HashSet<>();
+        private ScheduledFuture<?> resend;
+
+        Outcome(State decision) {
+            this.decision = decision;
+        }
+    }
+
+    private static class Promises {
+        private final Set<Integer> acceptors = new HashSet<>();
+        private int highestBallot = -1;
+        private int value = Message.NO_VALUE;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bank.twophasecommit;
+
+import com.bank.record.RecordLayout;
+import com.bank.transport.Message;
+import com.bank.transport.MessageHandler;
+import com.bank.transport.MessageType;
+import com.bank.transport.Transport;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+// Coordinator that talks to its participants through a Transport instead of calling them.
+// PREPARE is fanned out to every participant at once; a missing vote after the timeout
+// counts as a vote to abort.
+class NetworkCoordinator implements MessageHandler {
+    private final int node;
+    private final Transport transport;
+    private final long timeoutMillis;
+    private final List<Integer> participants = new ArrayList<>();
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    public NetworkCoordinator(int node, Transport transport, long timeoutMillis) {
+        this.node = node;
+        this.transport = transport;
+        this.timeoutMillis = timeoutMillis;
+        transport.register(node, this);
+    }
+
+    public void addParticipant(int participantNode) {
+        participants.add(participantNode);
+    }
+
+    public CompletableFuture<Boolean> commit(String txId) {
+        RecordLayout.checkId(txId);
+        Transaction tx = new Transaction(txId, participants);
+        transactions.put(txId, tx);
+        tx.timeout = timer.schedule(() -> decide(tx, State.ABORTED), timeoutMillis, TimeUnit.MILLISECONDS);
+        for (int participant : participants) {
+            transport.send(new Message(MessageType.PREPARE, txId, node, participant));
+        }
+        return tx.outcome;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        Transaction tx = transactions.get(message.getTxId());
+        if (tx == null) {
+            return; // late vote for a transaction that is already decided
+        }
+        if (message.getType() == MessageType.VOTE_ABORT) {
+            decide(tx, State.ABORTED);
+        } else if (message.getType() == MessageType.VOTE_COMMIT && lastVote(tx, message.getFrom())) {
+            decide(tx, State.COMMITTED);
+        }
+    }
+
+    // Votes are counted per participant, so a duplicated VOTE_COMMIT cannot stand in for another's
+    private boolean lastVote(Transaction tx, int from) {
+        synchronized (tx) {
+            return tx.awaiting.remove(from) && tx.awaiting.isEmpty();
+        }
+    }
+
+    private void decide(Transaction tx, State decision) {
+        if (transactions.remove(tx.txId) == null) {
+            return;
+        }
+        tx.timeout.cancel(false);
+        MessageType type = decision == State.COMMITTED ? MessageType.COMMIT : MessageType.ABORT;
+        for (int participant : participants) {
+            transport.send(new Message(type, tx.txId, node, participant));
+        }
+        tx.outcome.complete(decision == State.COMMITTED);
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private static class Transaction {
+        private final String txId;
+        private final Set<Integer> awaiting;
+        private final CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+
+        Transaction(String txId, List<Integer> participants) {
+            this.txId = txId;
+            this.awaiting = new HashSet<>(participants);
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package com.bank.twophasecommit;
 
+import com.bank.resource.ResourceManager;
+
 class Participant {
     private final String name;
+    // Optional: without one the participant only tracks protocol state
+    private final ResourceManager resources;
     State state = State.PREPARED;
 
     public Participant(String name) {
+        this(name, null);
+    }
+
+    public Participant(String name, ResourceManager resources) {
         this.name = name;
+        this.resources = resources;
+    }
+
+    public ResourceManager getResources() {
+        return resources;
     }
 
     public void prepare() {
@@ -26,4 +39,29 @@ class Participant {
         System.out.println(name + " aborted");
         state = State.ABORTED;
     }
+
+    // Per-transaction variants used over the network, where transactions overlap
+
+    public boolean prepare(String txId) {
+        boolean vote = resources == null || resources.prepare(txId);
+        System.out.println(name + (vote ? " prepared " : " voted to abort ") + txId);
+        state = vote ? State.PREPARED : State.ABORTED;
+        return vote;
+    }
+
+    public void commit(String txId) {
+        if (resources != null) {
+            resources.commit(txId);
+        }
+        System.out.println(name + " committed " + txId);
+        state = State.COMMITTED;
+    }
+
+    public void abort(String txId) {
+        if (resources != null) {
+            resources.abort(txId);
+        }
+        System.out.println(name + " aborted " + txId);
+        state = State.ABORTED;
+    }
 }
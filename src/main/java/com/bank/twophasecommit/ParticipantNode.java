@@ -0,0 +1,94 @@
+package com.bank.twophasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageHandler;
+import com.bank.transport.MessageType;
+import com.bank.transport.Transport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Puts a Participant on the network: protocol messages become calls on the participant.
+// With acceptors set, votes go to the Paxos Commit acceptors instead of back to the sender.
+class ParticipantNode implements MessageHandler {
+    private final int node;
+    private final Participant participant;
+    private final Transport transport;
+    private final List<Integer> acceptors;
+    // Time spent prepared but not knowing the outcome, i.e. holding locks in doubt
+    private final Map<String, Long> inDoubtSince = new ConcurrentHashMap<>();
+    private final AtomicLong inDoubtNanos = new AtomicLong();
+
+    public ParticipantNode(int node, Participant participant, Transport transport) {
+        this(node, participant, transport, List.of());
+    }
+
+    public ParticipantNode(int node, Participant participant, Transport transport, List<Integer> acceptors) {
+        this.node = node;
+        this.participant = participant;
+        this.transport = transport;
+        this.acceptors = acceptors;
+        transport.register(node, this);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        switch (message.getType()) {
+            case PREPARE:
+                vote(message, participant.prepare(message.getTxId()) ? State.PREPARED : State.ABORTED);
+                break;
+            case COMMIT:
+                resolved(message.getTxId());
+                participant.commit(message.getTxId());
+                acknowledge(message.getTxId(), State.COMMITTED);
+                break;
+            case ABORT:
+                resolved(message.getTxId());
+                participant.abort(message.getTxId());
+                acknowledge(message.getTxId(), State.ABORTED);
+                break;
+            default:
+                System.err.println("Unexpected message: " + message);
+        }
+    }
+
+    private void vote(Message prepare, State vote) {
+        if (vote == State.PREPARED) {
+            inDoubtSince.put(prepare.getTxId(), System.nanoTime());
+        }
+        if (acceptors.isEmpty()) {
+            transport.send(prepare.reply(vote == State.PREPARED ? MessageType.VOTE_COMMIT : MessageType.VOTE_ABORT));
+            return;
+        }
+        for (int acceptor : acceptors) {
+            transport.send(new Message(MessageType.PHASE_2A, prepare.getTxId(), node, acceptor,
+                    node, 0, CoordinatorReplica.toValue(vote), 0));
+        }
+    }
+
+    // Lets the Paxos Commit replicas forget the outcome once every participant has it
+    private void acknowledge(String txId, State outcome) {
+        for (int acceptor : acceptors) {
+            transport.send(new Message(MessageType.ACK, txId, node, acceptor,
+                    0, 0, CoordinatorReplica.toValue(outcome), 0));
+        }
+    }
+
+    private void resolved(String txId) {
+        Long since = inDoubtSince.remove(txId);
+        if (since != null) {
+            inDoubtNanos.addAndGet(System.nanoTime() - since);
+        }
+    }
+
+    public long getInDoubtNanos() {
+        return inDoubtNanos.get();
+    }
+
+    // Transactions this participant has voted for and is still waiting on
+    public int getInDoubtCount() {
+        return inDoubtSince.size();
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.twophasecommit;
+
+import com.bank.record.RecordLayout;
+import com.bank.transport.Transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+// Paxos Commit mode: the commit decision is recorded by a group of 2F+1 CoordinatorReplicas
+// instead of a single coordinator, so any F of them can fail without blocking participants.
+// Participants must be created with the acceptor list (see ParticipantNode).
+class ReplicatedCoordinator {
+    private final List<Integer> replicaNodes = new ArrayList<>();
+    private final List<Integer> participants = new CopyOnWriteArrayList<>();
+    private final List<CoordinatorReplica> replicas = new ArrayList<>();
+    private final Map<String, CompletableFuture<Boolean>> outcomes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    public ReplicatedCoordinator(int firstNode, int replicaCount, Transport transport, long timeoutMillis) {
+        for (int i = 0; i < replicaCount; i++) {
+            replicaNodes.add(firstNode + i);
+        }
+        for (int replicaNode : replicaNodes) {
+            replicas.add(new CoordinatorReplica(replicaNode, replicaNodes, participants, transport, timer, timeoutMillis, this::decided));
+        }
+    }
+
+    public void addParticipant(int participantNode) {
+        participants.add(participantNode);
+    }
+
+    public List<Integer> acceptors() {
+        return replicaNodes;
+    }
+
+    // Led by the first replica that has not crashed. Completes as soon as any replica learns
+    // the outcome.
+    public CompletableFuture<Boolean> commit(String txId) {
+        for (int i = 0; i < replicas.size(); i++) {
+            if (!replicas.get(i).isCrashed()) {
+                return commit(txId, i);
+            }
+        }
+        return CompletableFuture.failedFuture(new IllegalStateException("Every coordinator replica has crashed"));
+    }
+
+    public CompletableFuture<Boolean> commit(String txId, int leader) {
+        RecordLayout.checkId(txId);
+        CompletableFuture<Boolean> outcome = outcomes.computeIfAbsent(txId, id -> new CompletableFuture<>());
+        // Backups first, so each has armed its recovery timer before any vote can arrive
+        for (int i = 0; i < replicas.size(); i++) {
+            if (i != leader) {
+                replicas.get(i).begin(txId, false);
+            }
+        }
+        replicas.get(leader).begin(txId, true);
+        return outcome;
+    }
+
+    // Simulates a replica failure: it stops handling messages and timeouts
+    public void crash(int replica) {
+        replicas.get(replica).crash();
+    }
+
+    public int getRetainedOutcomes(int replica) {
+        return replicas.get(replica).getRetainedOutcomes();
+    }
+
+    private void decided(String txId, boolean committed) {
+        CompletableFuture<Boolean> outcome = outcomes.remove(txId);
+        if (outcome != null) {
+            outcome.complete(committed);
+        }
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
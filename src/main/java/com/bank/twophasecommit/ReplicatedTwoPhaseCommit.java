@@ -0,0 +1,45 @@
+package com.bank.twophasecommit;
+
+import com.bank.transport.LatencyDistribution;
+import com.bank.transport.SimulatedNetwork;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Usage: Paxos Commit with three coordinator replicas, surviving the loss of the leader
+public class ReplicatedTwoPhaseCommit {
+    public static void main(String[] args) throws InterruptedException {
+        try (SimulatedNetwork network = new SimulatedNetwork(42)) {
+            network.setLatency(LatencyDistribution.exponential(200, 300)).setLinger(50);
+
+            ReplicatedCoordinator coord = new ReplicatedCoordinator(10, 3, network, 200);
+            List<Integer> acceptors = coord.acceptors();
+            ParticipantNode p1 = new ParticipantNode(1, new Participant("P1"), network, acceptors);
+            ParticipantNode p2 = new ParticipantNode(2, new Participant("P2"), network, acceptors);
+            coord.addParticipant(1);
+            coord.addParticipant(2);
+
+            System.out.println("TX-1 committed: " + coord.commit("TX-1").join());
+
+            // The leader fails right after asking for votes; a backup finishes the transaction
+            CompletableFuture<Boolean> tx2 = coord.commit("TX-2");
+            Thread.sleep(1);
+            coord.crash(0);
+            System.out.println("TX-2 committed: " + tx2.join());
+
+            // The backups learned TX-2 at once, but announce it only after their timeout
+            Thread.sleep(1000);
+
+            // Replica 1 now leads. P2 never votes: it runs P2's instance itself and aborts
+            network.isolate(2);
+            System.out.println("TX-3 committed: " + coord.commit("TX-3").join());
+            network.heal();
+
+            Thread.sleep(1000); // let the outcome reach the participants
+            System.out.printf("In doubt: P1 %d tx / %.1f ms, P2 %d tx / %.1f ms%n",
+                    p1.getInDoubtCount(), p1.getInDoubtNanos() / 1e6, p2.getInDoubtCount(), p2.getInDoubtNanos() / 1e6);
+            System.out.println("Outcomes retained by replica 1: " + coord.getRetainedOutcomes(1));
+            coord.shutdown();
+        }
+    }
+}
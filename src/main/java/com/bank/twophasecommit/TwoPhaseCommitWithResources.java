@@ -0,0 +1,57 @@
+package com.bank.twophasecommit;
+
+import com.bank.resource.*;
+import com.bank.transport.SimulatedNetwork;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Usage: a transfer between two banks whose participants store real data
+public class TwoPhaseCommitWithResources {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path logFile = Files.createTempFile("bank-b-prepare", ".log");
+        ResourceManager bankA = new ResourceManager("BankA", 64, DeadlockPolicy.WAIT_DIE, PrepareLog.NONE);
+        PrepareLog bankBLog = new FilePrepareLog(logFile, true);
+        ResourceManager bankB = new ResourceManager("BankB", 64, DeadlockPolicy.WAIT_DIE, bankBLog);
+
+        try (SimulatedNetwork network = new SimulatedNetwork(42)) {
+            NetworkCoordinator coord = new NetworkCoordinator(0, network, 500);
+            new ParticipantNode(1, new Participant("BankA", bankA), network);
+            new ParticipantNode(2, new Participant("BankB", bankB), network);
+            coord.addParticipant(1);
+            coord.addParticipant(2);
+
+            Transaction debit = bankA.begin("TX-1");
+            Transaction credit = bankB.begin("TX-1");
+            debit.write("alice", "900");
+            credit.write("bob", "100");
+            System.out.println("TX-1 committed: " + coord.commit("TX-1").join());
+            Thread.sleep(50); // the outcome is still on its way to the banks
+            System.out.println("alice=" + bankA.read("alice") + ", bob=" + bankB.read("bob"));
+
+            // TX-3 is younger than TX-2 and dies instead of waiting for bob's lock
+            Transaction older = bankB.begin("TX-2");
+            Transaction younger = bankB.begin("TX-3");
+            older.write("bob", "150");
+            try {
+                younger.write("bob", "50");
+            } catch (TransactionAbortedException e) {
+                System.out.println(e.getMessage());
+            }
+            System.out.println("TX-3 committed: " + coord.commit("TX-3").join());
+
+            // Readers see the last committed value while TX-2 is prepared
+            bankB.prepare("TX-2");
+            System.out.println("bob while TX-2 is prepared: " + bankB.begin("TX-4").read("bob"));
+            coord.shutdown();
+        }
+        bankBLog.close();
+
+        // TX-2 never got an outcome: after a restart it is still in doubt and holds its lock
+        ResourceManager restarted = new ResourceManager("BankB", 64, DeadlockPolicy.WAIT_DIE, new FilePrepareLog(logFile, true));
+        restarted.commit("TX-2");
+        System.out.println("bob after recovery: " + restarted.read("bob"));
+        Files.delete(logFile);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bank.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void bucketBoundaries() {
+        assertEquals(127, LatencyHistogram.indexOf(127));
+        assertEquals(127, LatencyHistogram.highestValueAt(127));
+
+        // First log-linear bucket holds 128 and 129
+        assertEquals(128, LatencyHistogram.indexOf(128));
+        assertEquals(128, LatencyHistogram.indexOf(129));
+        assertEquals(129, LatencyHistogram.highestValueAt(128));
+        assertEquals(129, LatencyHistogram.indexOf(130));
+
+        // 255 closes the 128..255 range, 256 opens the next one with buckets of 4
+        assertEquals(191, LatencyHistogram.indexOf(255));
+        assertEquals(255, LatencyHistogram.highestValueAt(191));
+        assertEquals(192, LatencyHistogram.indexOf(256));
+        assertEquals(259, LatencyHistogram.highestValueAt(192));
+
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueAt(last));
+        assertEquals(last, LatencyHistogram.indexOf(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void everyValueFallsInTheBucketWhoseRangeHoldsIt() {
+        long[] values = {0, 1, 127, 128, 129, 255, 256, 257, 1_000, 1L << 20, (1L << 40) + 12345, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= value, "upper bound of " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueAt(index - 1) < value, "previous bucket of " + value);
+            }
+            assertTrue(LatencyHistogram.highestValueAt(index) - value <= value / 64, "precision at " + value);
+        }
+    }
+
+    @Test
+    void percentileReturnsTheValueAtItsRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(1, histogram.percentile(1));
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(51, histogram.percentile(50.5));
+        assertEquals(99, histogram.percentile(99));
+        assertEquals(100, histogram.percentile(100));
+        assertEquals(100, histogram.max());
+    }
+
+    @Test
+    void percentileOfBucketedValuesIsTheBucketsUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5); // clamped to 0
+        histogram.record(256);
+        histogram.record(1_000_000);
+        assertEquals(0, histogram.percentile(33));
+        assertEquals(259, histogram.percentile(34));
+        long p100 = histogram.percentile(100);
+        assertTrue(p100 >= 1_000_000 && p100 <= 1_000_000 + 1_000_000 / 64);
+        assertEquals(p100, histogram.max());
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.record;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordTest {
+    private enum Phase { FIRST, SECOND, THIRD }
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(RecordLayout.RECORD_LENGTH * 3);
+    private final RecordWriter writer = new RecordWriter();
+    private final RecordReader reader = new RecordReader();
+
+    @Test
+    void everyFieldRoundTrips() {
+        int offset = RecordLayout.offsetOf(1);
+        writer.wrap(buffer, offset).clear()
+                .kind(RecordKind.SAGA)
+                .state(Phase.THIRD)
+                .flags(0xFF)
+                .step(-7)
+                .node(Integer.MAX_VALUE)
+                .peer(Integer.MIN_VALUE)
+                .epoch(42)
+                .extra(-1)
+                .startTime(Long.MIN_VALUE)
+                .updateTime(Long.MAX_VALUE)
+                .id("SAGA-001");
+
+        reader.wrap(buffer, offset);
+        assertEquals(RecordKind.SAGA, reader.kind());
+        assertTrue(reader.isKind(RecordKind.SAGA));
+        assertEquals(Phase.THIRD, reader.state(Phase.values()));
+        assertEquals(0xFF, reader.flags());
+        assertEquals(-7, reader.step());
+        assertEquals(Integer.MAX_VALUE, reader.node());
+        assertEquals(Integer.MIN_VALUE, reader.peer());
+        assertEquals(42, reader.epoch());
+        assertEquals(-1, reader.extra());
+        assertEquals(Long.MIN_VALUE, reader.startTime());
+        assertEquals(Long.MAX_VALUE, reader.updateTime());
+        assertEquals("SAGA-001", reader.id());
+        assertTrue(reader.idEquals("SAGA-001"));
+        assertFalse(reader.idEquals("SAGA-002"));
+        assertEquals("x:SAGA-001", reader.appendId(new StringBuilder("x:")).toString());
+
+        // Neighbouring records are untouched
+        assertEquals(0, buffer.get(RecordLayout.offsetOf(0) + RecordLayout.RECORD_LENGTH - 1));
+        assertEquals(0, buffer.get(RecordLayout.offsetOf(2)));
+    }
+
+    @Test
+    void clearLeavesNoState() {
+        writer.wrap(buffer, 0).clear().kind(RecordKind.MESSAGE);
+        assertNull(reader.wrap(buffer, 0).state(Phase.values()));
+        assertEquals(RecordLayout.NO_STATE, reader.state());
+        assertEquals("", reader.id());
+    }
+
+    @Test
+    void copyFromCopiesTheWholeRecord() {
+        writer.wrap(buffer, 0).clear().kind(RecordKind.TWO_PHASE_COMMIT).state(Phase.SECOND).node(3).id("TX-9");
+        writer.wrap(buffer, RecordLayout.offsetOf(2)).copyFrom(reader.wrap(buffer, 0));
+
+        reader.wrap(buffer, RecordLayout.offsetOf(2));
+        assertEquals(RecordKind.TWO_PHASE_COMMIT, reader.kind());
+        assertEquals(Phase.SECOND, reader.state(Phase.values()));
+        assertEquals(3, reader.node());
+        assertEquals("TX-9", reader.id());
+    }
+
+    @Test
+    void idBounds() {
+        String uuid = UUID.randomUUID().toString();
+        writer.wrap(buffer, 0).clear().id(uuid);
+        assertEquals(uuid, reader.wrap(buffer, 0).id());
+
+        String longest = "x".repeat(RecordLayout.MAX_ID_LENGTH);
+        writer.id(longest);
+        assertEquals(longest, reader.id());
+
+        // A shorter id overwrites every byte of a longer one
+        writer.id("short");
+        assertEquals("short", reader.id());
+        assertEquals(0, buffer.get(RecordLayout.ID_OFFSET + 5));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.id(longest + "x"));
+        assertThrows(IllegalArgumentException.class, () -> writer.id("caf\u00e9"));
+        assertThrows(IllegalArgumentException.class, () -> RecordLayout.checkId(longest + "x"));
+        assertThrows(IllegalArgumentException.class, () -> RecordLayout.checkId("caf\u00e9"));
+        assertEquals(uuid, RecordLayout.checkId(uuid));
+    }
+
+    @Test
+    void badStateByteIsRejected() {
+        writer.wrap(buffer, 0).clear().kind(RecordKind.SAGA).state(Phase.values().length);
+        reader.wrap(buffer, 0);
+        assertThrows(IllegalArgumentException.class, () -> reader.state(Phase.values()));
+
+        writer.state(-5);
+        assertThrows(IllegalArgumentException.class, () -> reader.state(Phase.values()));
+    }
+
+    @Test
+    void badIdLengthIsRejected() {
+        writer.wrap(buffer, 0).clear().id("TX-1");
+        reader.wrap(buffer, 0);
+
+        buffer.put(RecordLayout.ID_LENGTH_OFFSET, (byte) (RecordLayout.MAX_ID_LENGTH + 1));
+        assertThrows(IllegalArgumentException.class, reader::id);
+        assertThrows(IllegalArgumentException.class, () -> reader.idEquals("TX-1"));
+
+        buffer.put(RecordLayout.ID_LENGTH_OFFSET, (byte) -1);
+        assertThrows(IllegalArgumentException.class, reader::idLength);
+    }
+
+    @Test
+    void unknownKindIsRejected() {
+        buffer.put(0, (byte) 99);
+        assertThrows(IllegalArgumentException.class, () -> reader.wrap(buffer, 0).kind());
+        assertEquals(RecordKind.SAGA, RecordKind.fromCode(RecordKind.SAGA.code()));
+    }
+
+    @Test
+    void wrapChecksBoundsAndByteOrder() {
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.wrap(buffer, RecordLayout.offsetOf(3)));
+        ByteBuffer littleEndian = ByteBuffer.allocate(RecordLayout.RECORD_LENGTH).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        assertThrows(IllegalArgumentException.class, () -> reader.wrap(littleEndian, 0));
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilePrepareLogTest {
+    @TempDir
+    Path dir;
+
+    private static Map<String, String> writes(String... keyValues) {
+        Map<String, String> writes = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            writes.put(keyValues[i], keyValues[i + 1]);
+        }
+        return writes;
+    }
+
+    @Test
+    void preparedWithoutOutcomeIsInDoubtAfterRestart() {
+        Path file = dir.resolve("prepare.log");
+        Map<String, String> withDelete = new HashMap<>(writes("a", "1"));
+        withDelete.put("gone", null);
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            log.prepared("t1", writes("k", "v", "\u00fcn\u00efcode", "v\u00e4lue"));
+            log.prepared("t2", withDelete);
+            log.prepared("t3", writes("x", "y"));
+            log.finished("t2", TransactionStatus.COMMITTED);
+            log.finished("t3", TransactionStatus.ABORTED);
+        }
+
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            assertEquals(Map.of("t1", writes("k", "v", "\u00fcn\u00efcode", "v\u00e4lue")), log.inDoubt());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedAndTheLogStaysUsable() throws IOException {
+        Path file = dir.resolve("prepare.log");
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            log.prepared("t1", writes("a", "1"));
+            log.prepared("t2", writes("b", "2", "c", "3"));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5); // crash in the middle of t2's write set
+        }
+
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            assertEquals(Map.of("t1", writes("a", "1")), log.inDoubt());
+            log.prepared("t3", writes("d", "4"));
+            log.finished("t1", TransactionStatus.COMMITTED);
+        }
+
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            assertEquals(Map.of("t3", writes("d", "4")), log.inDoubt());
+        }
+    }
+
+    @Test
+    void tornHeaderIsTruncated() throws IOException {
+        Path file = dir.resolve("prepare.log");
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            log.prepared("t1", writes("a", "1"));
+        }
+        long complete = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(10)); // crash in the middle of the next header
+        }
+
+        try (FilePrepareLog log = new FilePrepareLog(file, true)) {
+            assertEquals(Map.of("t1", writes("a", "1")), log.inDoubt());
+        }
+        assertEquals(complete, Files.size(file));
+    }
+
+    @Test
+    void resourceManagerRecoversInDoubtTransactionsWithTheirLocks() {
+        Path file = dir.resolve("prepare.log");
+        ResourceManager before = new ResourceManager("rm", 16, DeadlockPolicy.WAIT_DIE, new FilePrepareLog(file, true));
+        before.begin("t1").write("k", "1");
+        assertTrue(before.prepare("t1"));
+        before.begin("t2").write("other", "x"); // not prepared: lost in the restart
+
+        FilePrepareLog log = new FilePrepareLog(file, true);
+        ResourceManager after = new ResourceManager("rm", 16, DeadlockPolicy.WAIT_DIE, log);
+        assertEquals(TransactionStatus.PREPARED, after.get("t1").getStatus());
+        assertFalse(after.prepare("t2"), "writes taken before the restart are gone");
+        assertThrows(TransactionAbortedException.class, () -> after.begin("t3").write("k", "2"),
+                "the recovered transaction still holds its lock");
+
+        after.commit("t1");
+        assertEquals("1", after.read("k"));
+        log.close();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bank.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockTableTest {
+    // Lower priority is older
+    private static Transaction tx(String id, long priority) {
+        return new Transaction(null, id, priority, priority, 0);
+    }
+
+    @Test
+    void waitDieYoungerRequesterDies() {
+        LockTable locks = new LockTable(16, DeadlockPolicy.WAIT_DIE);
+        Transaction older = tx("older", 1);
+        Transaction younger = tx("younger", 2);
+        locks.acquire(older, "k");
+
+        assertThrows(TransactionAbortedException.class, () -> locks.acquire(younger, "k"));
+        assertTrue(younger.locks.isEmpty());
+    }
+
+    @Test
+    void waitDieOlderRequesterWaitsForRelease() throws Exception {
+        LockTable locks = new LockTable(16, DeadlockPolicy.WAIT_DIE);
+        Transaction older = tx("older", 1);
+        Transaction younger = tx("younger", 2);
+        locks.acquire(younger, "k");
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> locks.acquire(older, "k"));
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        locks.releaseAll(younger);
+        assertTrue(waiting.get(1, TimeUnit.SECONDS) > 0, "reports the time spent waiting");
+        assertEquals(1, older.locks.size());
+    }
+
+    @Test
+    void woundWaitOlderRequesterWoundsHolder() throws Exception {
+        LockTable locks = new LockTable(16, DeadlockPolicy.WOUND_WAIT);
+        Transaction older = tx("older", 1);
+        Transaction younger = tx("younger", 2);
+        locks.acquire(younger, "k");
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> locks.acquire(older, "k"));
+        Thread.sleep(50);
+        assertTrue(younger.isWounded());
+        assertFalse(waiting.isDone(), "the wounded holder keeps the lock until it rolls back");
+
+        locks.releaseAll(younger);
+        waiting.get(1, TimeUnit.SECONDS);
+        // A wounded transaction cannot take further locks
+        assertThrows(TransactionAbortedException.class, () -> locks.acquire(younger, "other"));
+    }
+
+    @Test
+    void woundWaitYoungerRequesterWaits() throws Exception {
+        LockTable locks = new LockTable(16, DeadlockPolicy.WOUND_WAIT);
+        Transaction older = tx("older", 1);
+        Transaction younger = tx("younger", 2);
+        locks.acquire(older, "k");
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> locks.acquire(younger, "k"));
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+        assertFalse(older.isWounded());
+
+        locks.releaseAll(older);
+        waiting.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void prepareMakesATransactionUnwoundable() {
+        Transaction holder = tx("holder", 2);
+        assertTrue(holder.transition(TransactionStatus.ACTIVE, TransactionStatus.PREPARED));
+        assertFalse(holder.wound());
+    }
+
+    @Test
+    void reacquiringAHeldLockIsFree() {
+        LockTable locks = new LockTable(1, DeadlockPolicy.WAIT_DIE);
+        Transaction tx = tx("tx", 1);
+        locks.acquire(tx, "k");
+        assertEquals(0, locks.acquire(tx, "k"));
+        assertEquals(1, tx.locks.size());
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MvccStoreTest {
+    private final MvccStore store = new MvccStore();
+
+    @Test
+    void readerSeesNewestVersionNoLaterThanItsSnapshot() {
+        store.install(Map.of("k", "v1"), 1, 0);
+        store.install(Map.of("k", "v2"), 3, 0);
+
+        assertNull(store.read("k", 0));
+        assertEquals("v1", store.read("k", 1));
+        assertEquals("v1", store.read("k", 2));
+        assertEquals("v2", store.read("k", 3));
+        assertEquals(3, store.latestCommitTs("k"));
+        assertEquals(-1, store.latestCommitTs("other"));
+    }
+
+    @Test
+    void deleteIsAVersionThatReadsAsNull() {
+        store.install(Map.of("k", "v1"), 1, 0);
+        Map<String, String> delete = new HashMap<>();
+        delete.put("k", null);
+        store.install(delete, 2, 0);
+
+        assertEquals("v1", store.read("k", 1));
+        assertNull(store.read("k", 2));
+    }
+
+    @Test
+    void pruningKeepsTheVersionVisibleToTheOldestSnapshot() {
+        store.install(Map.of("k", "v1"), 1, 0);
+        store.install(Map.of("k", "v2"), 2, 1);
+        assertEquals("v1", store.read("k", 1));
+
+        store.install(Map.of("k", "v3"), 3, 2);
+        assertEquals("v2", store.read("k", 2));
+        assertNull(store.read("k", 1), "v1 is older than every live snapshot and must be gone");
+    }
+}
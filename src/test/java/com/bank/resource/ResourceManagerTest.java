@@ -0,0 +1,98 @@
+package com.bank.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceManagerTest {
+    private final ResourceManager manager = new ResourceManager("test", 16, DeadlockPolicy.WAIT_DIE, PrepareLog.NONE);
+
+    private void put(String txId, String key, String value) {
+        manager.begin(txId).write(key, value);
+        assertTrue(manager.prepare(txId));
+        manager.commit(txId);
+    }
+
+    @Test
+    void readsSeeTheSnapshotTakenAtBegin() {
+        put("t0", "k", "0");
+        Transaction reader = manager.begin("reader");
+        put("t1", "k", "1");
+
+        assertEquals("0", reader.read("k"));
+        assertEquals("1", manager.read("k"));
+    }
+
+    @Test
+    void readersDoNotSeePreparedWrites() {
+        put("t0", "k", "0");
+        manager.begin("t1").write("k", "1");
+        assertTrue(manager.prepare("t1"));
+
+        assertEquals("0", manager.begin("reader").read("k"));
+        manager.commit("t1");
+        assertEquals("1", manager.begin("later").read("k"));
+    }
+
+    @Test
+    void concurrentReadModifyWriteCannotLoseAnUpdate() {
+        put("t0", "k", "0");
+        Transaction t1 = manager.begin("t1");
+        int seen = Integer.parseInt(t1.read("k"));
+
+        Transaction t2 = manager.begin("t2");
+        t2.write("k", Integer.toString(Integer.parseInt(t2.read("k")) + 1));
+        assertTrue(manager.prepare("t2"));
+        manager.commit("t2");
+
+        assertThrows(TransactionAbortedException.class, () -> t1.write("k", Integer.toString(seen + 1)));
+        assertEquals(TransactionStatus.ABORTED, t1.getStatus());
+        assertFalse(manager.prepare("t1"));
+        assertEquals("1", manager.read("k"));
+        assertEquals(1, manager.getConflictAborts());
+    }
+
+    @Test
+    void unknownTransactionVotesNo() {
+        assertFalse(manager.prepare("never-begun"));
+    }
+
+    @Test
+    void readOnlyTransactionVotesYes() {
+        put("t0", "k", "0");
+        manager.begin("reader").read("k");
+        assertTrue(manager.prepare("reader"));
+        manager.commit("reader");
+        assertEquals(2, manager.getCommits());
+    }
+
+    @Test
+    void deadlockVictimVotesNo() {
+        Transaction older = manager.begin("older");
+        Transaction younger = manager.begin("younger");
+        older.write("k", "1");
+
+        assertThrows(TransactionAbortedException.class, () -> younger.write("k", "2"));
+        assertFalse(manager.prepare("younger"));
+        assertEquals(1, manager.getDeadlockAborts());
+        assertTrue(manager.prepare("older"));
+    }
+
+    @Test
+    void abortDiscardsWritesAndReleasesLocks() {
+        put("t0", "k", "0");
+        manager.begin("t1").write("k", "1");
+        manager.abort("t1");
+
+        assertEquals("0", manager.read("k"));
+        Transaction next = manager.begin("t2");
+        next.write("k", "2");
+        assertTrue(manager.prepare("t2"));
+    }
+
+    @Test
+    void duplicateBeginIsRejected() {
+        manager.begin("t1");
+        assertThrows(IllegalStateException.class, () -> manager.begin("t1"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.bank.saga;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingServiceTest {
+    private final ServiceTimer timer = new ServiceTimer("batching-test");
+    // Saga ids of every batch the backend received, in arrival order
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        timer.shutdown();
+    }
+
+    // Backend that answers every batch at once with whatever the given function returns
+    private BatchService backend(Function<List<RequestContext>, BatchResult> result) {
+        return new BatchService() {
+            @Override
+            public CompletableFuture<BatchResult> executeBatch(List<RequestContext> requests) {
+                List<String> ids = new ArrayList<>();
+                requests.forEach(r -> ids.add(r.getSagaId()));
+                batches.add(ids);
+                return CompletableFuture.completedFuture(result.apply(requests));
+            }
+
+            @Override
+            public CompletableFuture<BatchResult> compensateBatch(List<RequestContext> requests) {
+                return CompletableFuture.completedFuture(BatchResult.success(requests.size()));
+            }
+        };
+    }
+
+    private BatchService succeeding() {
+        return backend(requests -> BatchResult.success(requests.size()));
+    }
+
+    private static CompletableFuture<Void> execute(BatchingService service, String sagaId) {
+        return service.execute(new RequestContext(sagaId));
+    }
+
+    @Test
+    void fullBatchLeavesWithoutWaitingForTheWindow() throws Exception {
+        BatchingService service = new BatchingService(succeeding(), 3, TimeUnit.SECONDS.toMicros(10), timer);
+        CompletableFuture<Void> a = execute(service, "S-1");
+        CompletableFuture<Void> b = execute(service, "S-2");
+        assertTrue(batches.isEmpty());
+        CompletableFuture<Void> c = execute(service, "S-3");
+
+        CompletableFuture.allOf(a, b, c).get(1, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("S-1", "S-2", "S-3")), batches);
+        assertEquals(1, service.getBatches());
+    }
+
+    @Test
+    void partialBatchLeavesWhenTheWindowCloses() throws Exception {
+        BatchingService service = new BatchingService(succeeding(), 100, TimeUnit.MILLISECONDS.toMicros(20), timer);
+        CompletableFuture<Void> a = execute(service, "S-1");
+        CompletableFuture<Void> b = execute(service, "S-2");
+
+        CompletableFuture.allOf(a, b).get(1, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("S-1", "S-2")), batches);
+    }
+
+    @Test
+    void windowOfABatchThatAlreadyLeftDoesNotCutTheNextOneShort() throws Exception {
+        long window = 400;
+        BatchingService service = new BatchingService(succeeding(), 2, TimeUnit.MILLISECONDS.toMicros(window), timer);
+        long start = System.nanoTime();
+        execute(service, "S-1"); // opens a window ending at 400 ms
+        execute(service, "S-2"); // fills the batch, which leaves at once
+        Thread.sleep(window / 2);
+        CompletableFuture<Void> late = execute(service, "S-3"); // window ends at 600 ms
+
+        Thread.sleep(window / 2 + window / 4);
+        assertFalse(late.isDone(), "the first window's timer must not flush S-3 at 400 ms");
+        late.get(1, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(window + window / 2));
+        assertEquals(List.of(List.of("S-1", "S-2"), List.of("S-3")), batches);
+    }
+
+    @Test
+    void eachFutureGetsItsOwnItemsOutcome() throws Exception {
+        IllegalStateException declined = new IllegalStateException("declined");
+        BatchingService service = new BatchingService(
+                backend(requests -> BatchResult.success(requests.size()).fail(1, declined)), 3, 1_000_000, timer);
+        CompletableFuture<Void> a = execute(service, "S-1");
+        CompletableFuture<Void> b = execute(service, "S-2");
+        CompletableFuture<Void> c = execute(service, "S-3");
+
+        a.get(1, TimeUnit.SECONDS);
+        c.get(1, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> b.get(1, TimeUnit.SECONDS));
+        assertSame(declined, failure.getCause());
+    }
+
+    @Test
+    void missingResultFailsTheWholeBatch() {
+        BatchingService service = new BatchingService(backend(requests -> null), 2, 1_000_000, timer);
+        CompletableFuture<Void> a = execute(service, "S-1");
+        CompletableFuture<Void> b = execute(service, "S-2");
+
+        for (CompletableFuture<Void> future : List.of(a, b)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void onlyTheSagaWhoseItemFailedIsCompensated() throws Exception {
+        Set<String> compensated = ConcurrentHashMap.newKeySet();
+        Service first = new Service() {
+            @Override
+            public CompletableFuture<Void> execute(RequestContext context) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> compensate(RequestContext context) {
+                compensated.add(context.getSagaId());
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        BatchingService payment = new BatchingService(backend(requests -> {
+            BatchResult result = BatchResult.success(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                if (requests.get(i).getSagaId().equals("S-2")) {
+                    result.fail(i, new IllegalStateException("declined"));
+                }
+            }
+            return result;
+        }), 3, 1_000_000, timer);
+        SagaManager manager = new SagaManager(List.of(first, payment));
+
+        List<CompletableFuture<Boolean>> sagas = new ArrayList<>();
+        for (String sagaId : List.of("S-1", "S-2", "S-3")) {
+            sagas.add(manager.executeSaga(sagaId)
+                    .thenApply(v -> true)
+                    .exceptionallyCompose(ex -> manager.compensateSaga(sagaId).thenApply(v -> false)));
+        }
+
+        assertEquals(List.of(true, false, true), List.of(
+                sagas.get(0).get(1, TimeUnit.SECONDS), sagas.get(1).get(1, TimeUnit.SECONDS), sagas.get(2).get(1, TimeUnit.SECONDS)));
+        assertEquals(1, batches.size(), "all three payments went out as one batch");
+        assertEquals(Set.of("S-2"), compensated);
+    }
+}
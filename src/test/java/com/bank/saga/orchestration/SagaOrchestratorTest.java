@@ -0,0 +1,88 @@
+package com.bank.saga.orchestration;
+
+import com.bank.saga.RequestContext;
+import com.bank.saga.Service;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaOrchestratorTest {
+    private final SagaOrchestrator orchestrator = new SagaOrchestrator(2);
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        orchestrator.shutdown();
+    }
+
+    private enum Behaviour { SUCCEED, FAIL, THROW }
+
+    private void register(String name, Behaviour behaviour) {
+        orchestrator.registerService(name, new SagaOrchestrator.ServiceInfo(name, new Service() {
+            @Override
+            public CompletableFuture<Void> execute(RequestContext context) {
+                calls.add("execute " + name);
+                switch (behaviour) {
+                    case FAIL:
+                        return CompletableFuture.failedFuture(new IllegalStateException(name + " declined"));
+                    case THROW:
+                        throw new IllegalStateException(name + " threw");
+                    default:
+                        return CompletableFuture.completedFuture(null);
+                }
+            }
+
+            @Override
+            public CompletableFuture<Void> compensate(RequestContext context) {
+                calls.add("compensate " + name);
+                return CompletableFuture.completedFuture(null);
+            }
+        }));
+    }
+
+    private void assertFails(List<String> services) {
+        CompletableFuture<Void> saga = orchestrator.orchestrateSaga("S-1", services);
+        assertThrows(ExecutionException.class, () -> saga.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completesEveryStepInOrder() throws Exception {
+        register("a", Behaviour.SUCCEED);
+        register("b", Behaviour.SUCCEED);
+        orchestrator.orchestrateSaga("S-1", List.of("a", "b")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("execute a", "execute b"), calls);
+    }
+
+    @Test
+    void compensatesEarlierStepsInReverseAndSkipsTheFailedOne() {
+        register("a", Behaviour.SUCCEED);
+        register("b", Behaviour.SUCCEED);
+        register("c", Behaviour.FAIL);
+        register("d", Behaviour.SUCCEED);
+        assertFails(List.of("a", "b", "c", "d"));
+        assertEquals(List.of("execute a", "execute b", "execute c", "compensate b", "compensate a"), calls);
+    }
+
+    @Test
+    void serviceThatThrowsIsTreatedAsAFailedStep() {
+        register("a", Behaviour.SUCCEED);
+        register("b", Behaviour.THROW);
+        assertFails(List.of("a", "b"));
+        assertEquals(List.of("execute a", "execute b", "compensate a"), calls);
+    }
+
+    @Test
+    void unknownServiceCompensatesTheCompletedSteps() {
+        register("a", Behaviour.SUCCEED);
+        register("b", Behaviour.SUCCEED);
+        assertFails(List.of("a", "b", "missing"));
+        assertEquals(List.of("execute a", "execute b", "compensate b", "compensate a"), calls);
+    }
+}
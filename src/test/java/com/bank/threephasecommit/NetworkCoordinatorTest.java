@@ -0,0 +1,91 @@
+package com.bank.threephasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageType;
+import com.bank.transport.RecordingTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkCoordinatorTest {
+    private final RecordingTransport transport = new RecordingTransport();
+    private final NetworkCoordinator coordinator = new NetworkCoordinator(0, transport, 200);
+
+    NetworkCoordinatorTest() {
+        coordinator.addParticipant(1);
+        coordinator.addParticipant(2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        coordinator.shutdown();
+    }
+
+    private void reply(String txId, int from, MessageType type) {
+        transport.deliver(new Message(type, txId, from, 0));
+    }
+
+    @Test
+    void commitsAfterVotesAndAcks() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        reply("TX-1", 1, MessageType.VOTE_COMMIT);
+        reply("TX-1", 2, MessageType.VOTE_COMMIT);
+        assertEquals(2, transport.sent(MessageType.PRE_COMMIT).size());
+
+        reply("TX-1", 1, MessageType.ACK);
+        reply("TX-1", 2, MessageType.ACK);
+        assertTrue(outcome.get(1, TimeUnit.SECONDS));
+        assertEquals(2, transport.sent(MessageType.COMMIT).size());
+    }
+
+    @Test
+    void missingVoteAborts() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        reply("TX-1", 1, MessageType.VOTE_COMMIT);
+        reply("TX-1", 1, MessageType.VOTE_COMMIT);
+
+        assertFalse(outcome.get(1, TimeUnit.SECONDS));
+        assertTrue(transport.sent(MessageType.PRE_COMMIT).isEmpty());
+        assertEquals(2, transport.sent(MessageType.ABORT).size());
+    }
+
+    @Test
+    void missingAckAfterPreCommitStillCommits() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        reply("TX-1", 1, MessageType.VOTE_COMMIT);
+        reply("TX-1", 2, MessageType.VOTE_COMMIT);
+        reply("TX-1", 1, MessageType.ACK);
+        reply("TX-1", 1, MessageType.ACK);
+
+        assertFalse(outcome.isDone(), "a duplicated ack does not stand in for participant 2");
+        assertTrue(outcome.get(1, TimeUnit.SECONDS));
+        assertTrue(transport.sent(MessageType.ABORT).isEmpty());
+        assertEquals(2, transport.sent(MessageType.COMMIT).size());
+    }
+
+    @Test
+    void refusalAfterPreCommitCountsAsAMissingAck() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        reply("TX-1", 1, MessageType.VOTE_COMMIT);
+        reply("TX-1", 2, MessageType.VOTE_COMMIT);
+        reply("TX-1", 1, MessageType.ACK);
+        reply("TX-1", 2, MessageType.VOTE_ABORT);
+
+        assertTrue(outcome.get(1, TimeUnit.SECONDS));
+        assertTrue(transport.sent(MessageType.ABORT).isEmpty());
+        assertEquals(2, transport.sent(MessageType.COMMIT).size());
+    }
+
+    @Test
+    void refusedVoteAborts() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        reply("TX-1", 1, MessageType.VOTE_ABORT);
+
+        assertFalse(outcome.get(1, TimeUnit.SECONDS));
+        assertEquals(2, transport.sent(MessageType.ABORT).size());
+    }
+}
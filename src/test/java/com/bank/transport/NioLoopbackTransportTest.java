@@ -0,0 +1,74 @@
+package com.bank.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioLoopbackTransportTest {
+    @Test
+    void messagesArriveIntactAndInOrderAcrossManyFrames() throws InterruptedException {
+        int count = 5000; // well past one 256-message frame and one socket read
+        List<Message> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        try (NioLoopbackTransport transport = new NioLoopbackTransport()) {
+            transport.register(1, message -> fail("node 1 receives nothing"));
+            transport.register(2, message -> {
+                received.add(message); // only the reader thread delivers
+                done.countDown();
+            });
+            for (int i = 0; i < count; i++) {
+                transport.send(new Message(MessageType.PHASE_2B, "TX-" + i, 1, 2, i, i + 1, i % 3, -i));
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < count; i++) {
+            Message message = received.get(i);
+            assertEquals(MessageType.PHASE_2B, message.getType());
+            assertEquals("TX-" + i, message.getTxId());
+            assertEquals(1, message.getFrom());
+            assertEquals(2, message.getTo());
+            assertEquals(i, message.getInstance());
+            assertEquals(i + 1, message.getBallot());
+            assertEquals(i % 3, message.getValue());
+            assertEquals(-i, message.getAcceptedBallot());
+        }
+    }
+
+    @Test
+    void repliesTravelBackOverTheirOwnConnection() throws InterruptedException {
+        CountDownLatch replied = new CountDownLatch(1);
+        try (NioLoopbackTransport transport = new NioLoopbackTransport()) {
+            transport.register(1, message -> replied.countDown());
+            transport.register(2, message -> transport.send(message.reply(MessageType.VOTE_COMMIT)));
+            transport.send(new Message(MessageType.PREPARE, "TX-1", 1, 2));
+            assertTrue(replied.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void sendToAnUnknownNodeIsDroppedAndCounted() {
+        try (NioLoopbackTransport transport = new NioLoopbackTransport()) {
+            transport.send(new Message(MessageType.PREPARE, "TX-1", 1, 99));
+            assertEquals(1, transport.getDropped());
+        }
+    }
+
+    @Test
+    void unencodableMessageIsDroppedAndLaterSendsStillArrive() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        try (NioLoopbackTransport transport = new NioLoopbackTransport()) {
+            transport.register(1, message -> fail("node 1 receives nothing"));
+            transport.register(2, message -> delivered.countDown());
+            transport.send(new Message(MessageType.PREPARE, "TX-" + "x".repeat(64), 1, 2));
+            transport.send(new Message(MessageType.PREPARE, "TX-2", 1, 2));
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, transport.getDropped());
+        }
+    }
+}
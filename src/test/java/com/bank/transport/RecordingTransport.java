@@ -0,0 +1,40 @@
+package com.bank.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Transport for driving one protocol node by hand: sends are recorded, nothing is delivered
+// until the test calls deliver()
+public class RecordingTransport implements Transport {
+    private final Map<Integer, MessageHandler> handlers = new ConcurrentHashMap<>();
+    private final List<Message> sent = new ArrayList<>();
+
+    @Override
+    public void register(int node, MessageHandler handler) {
+        handlers.put(node, handler);
+    }
+
+    @Override
+    public synchronized void send(Message message) {
+        sent.add(message);
+    }
+
+    public void deliver(Message message) {
+        handlers.get(message.getTo()).onMessage(message);
+    }
+
+    public synchronized List<Message> sent(MessageType type) {
+        return sent.stream().filter(m -> m.getType() == type).collect(Collectors.toList());
+    }
+
+    public synchronized void clear() {
+        sent.clear();
+    }
+
+    @Override
+    public void close() {
+    }
+}
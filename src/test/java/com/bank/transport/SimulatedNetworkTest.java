@@ -0,0 +1,61 @@
+package com.bank.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedNetworkTest {
+    // Sends one message over every link between the given nodes and returns which links got through
+    private static Set<String> reachable(SimulatedNetwork network, int... nodes) throws InterruptedException {
+        Set<String> links = ConcurrentHashMap.newKeySet();
+        for (int node : nodes) {
+            network.register(node, message -> links.add(message.getFrom() + "->" + message.getTo()));
+        }
+        int sent = 0;
+        for (int from : nodes) {
+            for (int to : nodes) {
+                if (from != to) {
+                    network.send(new Message(MessageType.PREPARE, "TX-1", from, to));
+                    sent++;
+                }
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (network.getDelivered() + network.getDropped() < sent && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(sent, network.getDelivered() + network.getDropped());
+        return links;
+    }
+
+    @Test
+    void isolatedNodesAreCutFromEachOtherToo() throws InterruptedException {
+        try (SimulatedNetwork network = new SimulatedNetwork(1)) {
+            network.isolate(1);
+            network.isolate(2);
+            assertEquals(Set.of("3->4", "4->3"), reachable(network, 1, 2, 3, 4));
+        }
+    }
+
+    @Test
+    void partitionKeepsEachSideConnected() throws InterruptedException {
+        try (SimulatedNetwork network = new SimulatedNetwork(1)) {
+            network.partition(Set.of(1, 2), Set.of(3));
+            assertEquals(Set.of("1->2", "2->1"), reachable(network, 1, 2, 3));
+        }
+    }
+
+    @Test
+    void healReconnectsEveryone() throws InterruptedException {
+        try (SimulatedNetwork network = new SimulatedNetwork(1)) {
+            network.isolate(1, 2);
+            network.heal();
+            assertEquals(6, reachable(network, 1, 2, 3).size());
+            assertEquals(0, network.getDropped());
+        }
+    }
+}
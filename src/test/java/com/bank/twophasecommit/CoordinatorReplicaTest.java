@@ -0,0 +1,109 @@
+package com.bank.twophasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageType;
+import com.bank.transport.RecordingTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinatorReplicaTest {
+    // Participants vote by proposing PREPARED (yes) or ABORTED (no) in their own instance
+    private static final int YES = CoordinatorReplica.toValue(State.PREPARED);
+    private static final int NO = CoordinatorReplica.toValue(State.ABORTED);
+
+    private final RecordingTransport transport = new RecordingTransport();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+    private final CoordinatorReplica replica = new CoordinatorReplica(10, List.of(10, 11, 12), List.of(1, 2),
+            transport, timer, 60_000, decisions::put);
+
+    @AfterEach
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void phase2b(int from, int participant, int value) {
+        transport.deliver(new Message(MessageType.PHASE_2B, "TX-1", from, 10, participant, 0, value, 0));
+    }
+
+    @Test
+    void learnsOnlyFromAMajorityOfDistinctAcceptors() {
+        replica.begin("TX-1", false);
+        phase2b(11, 1, YES);
+        phase2b(11, 1, YES);
+        phase2b(11, 2, YES);
+        phase2b(11, 2, YES);
+        assertTrue(decisions.isEmpty(), "one acceptor repeated is not a majority");
+
+        phase2b(12, 1, YES);
+        assertTrue(decisions.isEmpty(), "participant 2's instance is still open");
+        phase2b(12, 2, YES);
+        assertEquals(Map.of("TX-1", true), decisions);
+    }
+
+    @Test
+    void oneAbortedInstanceAbortsTheTransaction() {
+        replica.begin("TX-1", false);
+        phase2b(11, 2, NO);
+        phase2b(12, 2, NO);
+        assertEquals(Map.of("TX-1", false), decisions);
+    }
+
+    @Test
+    void outcomeIsForgottenAfterEveryParticipantAcked() {
+        replica.begin("TX-1", true);
+        transport.deliver(new Message(MessageType.COMMIT, "TX-1", 11, 10));
+        assertEquals(1, replica.getRetainedOutcomes());
+
+        Message ack1 = new Message(MessageType.ACK, "TX-1", 1, 10, 0, 0, CoordinatorReplica.toValue(State.COMMITTED), 0);
+        transport.deliver(ack1);
+        transport.deliver(ack1);
+        assertEquals(1, replica.getRetainedOutcomes(), "a repeated ack does not stand in for participant 2");
+
+        transport.deliver(new Message(MessageType.ACK, "TX-1", 2, 10, 0, 0, CoordinatorReplica.toValue(State.COMMITTED), 0));
+        assertEquals(0, replica.getRetainedOutcomes());
+
+        // A late message for the forgotten transaction does not bring it back
+        phase2b(11, 1, YES);
+        assertEquals(0, replica.getRetainedOutcomes());
+    }
+
+    @Test
+    void recoveringReplicaIsToldAKnownOutcome() {
+        replica.begin("TX-1", false);
+        transport.deliver(new Message(MessageType.ABORT, "TX-1", 11, 10));
+        transport.clear();
+
+        transport.deliver(new Message(MessageType.PHASE_1A, "TX-1", 12, 10, 1, 6, Message.NO_VALUE, 0));
+        assertEquals(1, transport.sent(MessageType.ABORT).size());
+        assertTrue(transport.sent(MessageType.PHASE_1B).isEmpty());
+    }
+
+    @Test
+    void outcomeIsResentToParticipantsThatHaveNotAcked() throws InterruptedException {
+        CoordinatorReplica fast = new CoordinatorReplica(20, List.of(20), List.of(1, 2), transport, timer, 20, decisions::put);
+        fast.begin("TX-2", false);
+        transport.deliver(new Message(MessageType.COMMIT, "TX-2", 11, 20));
+        transport.deliver(new Message(MessageType.ACK, "TX-2", 1, 20, 0, 0, CoordinatorReplica.toValue(State.COMMITTED), 0));
+        transport.clear();
+
+        Thread.sleep(100);
+        List<Message> resent = transport.sent(MessageType.COMMIT);
+        assertFalse(resent.isEmpty());
+        assertTrue(resent.stream().allMatch(m -> m.getTo() == 2), "participant 1 already acked");
+
+        transport.deliver(new Message(MessageType.ACK, "TX-2", 2, 20, 0, 0, CoordinatorReplica.toValue(State.COMMITTED), 0));
+        assertEquals(0, fast.getRetainedOutcomes());
+        transport.clear();
+        Thread.sleep(100);
+        assertTrue(transport.sent(MessageType.COMMIT).isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.twophasecommit;
+
+import com.bank.transport.Message;
+import com.bank.transport.MessageType;
+import com.bank.transport.RecordingTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkCoordinatorTest {
+    private final RecordingTransport transport = new RecordingTransport();
+    private final NetworkCoordinator coordinator = new NetworkCoordinator(0, transport, 200);
+
+    NetworkCoordinatorTest() {
+        coordinator.addParticipant(1);
+        coordinator.addParticipant(2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        coordinator.shutdown();
+    }
+
+    private void vote(String txId, int from, MessageType vote) {
+        transport.deliver(new Message(vote, txId, from, 0));
+    }
+
+    @Test
+    void commitsOnceEveryParticipantVotedYes() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        assertEquals(2, transport.sent(MessageType.PREPARE).size());
+
+        vote("TX-1", 1, MessageType.VOTE_COMMIT);
+        assertFalse(outcome.isDone());
+        vote("TX-1", 2, MessageType.VOTE_COMMIT);
+        assertTrue(outcome.get(1, TimeUnit.SECONDS));
+        assertEquals(2, transport.sent(MessageType.COMMIT).size());
+    }
+
+    @Test
+    void duplicatedVoteDoesNotCountForAnotherParticipant() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        vote("TX-1", 1, MessageType.VOTE_COMMIT);
+        vote("TX-1", 1, MessageType.VOTE_COMMIT);
+
+        assertFalse(outcome.isDone());
+        assertFalse(outcome.get(1, TimeUnit.SECONDS), "participant 2 never voted, so the timeout aborts");
+        assertTrue(transport.sent(MessageType.COMMIT).isEmpty());
+    }
+
+    @Test
+    void anyNoVoteAborts() throws Exception {
+        CompletableFuture<Boolean> outcome = coordinator.commit("TX-1");
+        vote("TX-1", 1, MessageType.VOTE_COMMIT);
+        vote("TX-1", 2, MessageType.VOTE_ABORT);
+
+        assertFalse(outcome.get(1, TimeUnit.SECONDS));
+        assertEquals(2, transport.sent(MessageType.ABORT).size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.twophasecommit;
+
+import com.bank.resource.DeadlockPolicy;
+import com.bank.resource.PrepareLog;
+import com.bank.resource.ResourceManager;
+import com.bank.transport.LatencyDistribution;
+import com.bank.transport.SimulatedNetwork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicatedCoordinatorTest {
+    private final SimulatedNetwork network = new SimulatedNetwork(7);
+    private final ReplicatedCoordinator coordinator = new ReplicatedCoordinator(10, 3, network, 100);
+    private final ResourceManager bankA = new ResourceManager("A", 16, DeadlockPolicy.WAIT_DIE, PrepareLog.NONE);
+    private final ResourceManager bankB = new ResourceManager("B", 16, DeadlockPolicy.WAIT_DIE, PrepareLog.NONE);
+    private final ParticipantNode nodeA;
+    private final ParticipantNode nodeB;
+
+    ReplicatedCoordinatorTest() {
+        network.setLatency(LatencyDistribution.uniform(100, 500));
+        List<Integer> acceptors = coordinator.acceptors();
+        nodeA = new ParticipantNode(1, new Participant("A", bankA), network, acceptors);
+        nodeB = new ParticipantNode(2, new Participant("B", bankB), network, acceptors);
+        coordinator.addParticipant(1);
+        coordinator.addParticipant(2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        coordinator.shutdown();
+        network.close();
+    }
+
+    private void transfer(String txId) {
+        bankA.begin(txId).write("alice", txId);
+        bankB.begin(txId).write("bob", txId);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+
+    // Both banks applied the same outcome
+    private void assertAtomic(String txId, boolean committed) throws InterruptedException {
+        await(() -> nodeA.getInDoubtCount() == 0 && nodeB.getInDoubtCount() == 0
+                && bankA.get(txId) == null && bankB.get(txId) == null);
+        assertEquals(committed ? txId : null, bankA.read("alice"));
+        assertEquals(committed ? txId : null, bankB.read("bob"));
+    }
+
+    @Test
+    void commitsAndForgetsTheOutcomeOnceEveryParticipantAcked() throws Exception {
+        transfer("TX-1");
+        assertTrue(coordinator.commit("TX-1").get(5, TimeUnit.SECONDS));
+        assertAtomic("TX-1", true);
+        for (int replica = 0; replica < 3; replica++) {
+            int r = replica;
+            await(() -> coordinator.getRetainedOutcomes(r) == 0);
+        }
+    }
+
+    @Test
+    void crashedFirstReplicaIsNotChosenAsLeader() throws Exception {
+        coordinator.crash(0);
+        transfer("TX-1");
+        assertTrue(coordinator.commit("TX-1").get(5, TimeUnit.SECONDS));
+        assertAtomic("TX-1", true);
+    }
+
+    @Test
+    void crashedExplicitLeaderIsRecoveredByABackup() throws Exception {
+        coordinator.crash(0);
+        transfer("TX-1");
+        // No PREPARE ever goes out, so the backups find no votes and abort
+        assertFalse(coordinator.commit("TX-1", 0).get(5, TimeUnit.SECONDS));
+        assertAtomic("TX-1", false);
+    }
+
+    @Test
+    void leaderLostAfterAskingForVotes() throws Exception {
+        transfer("TX-1");
+        var outcome = coordinator.commit("TX-1");
+        coordinator.crash(0);
+        boolean committed = outcome.get(5, TimeUnit.SECONDS);
+        assertAtomic("TX-1", committed);
+    }
+
+    @Test
+    void silentParticipantIsDecidedAborted() throws Exception {
+        transfer("TX-1");
+        network.isolate(2);
+        assertFalse(coordinator.commit("TX-1").get(5, TimeUnit.SECONDS));
+        network.heal();
+        // The announcement was lost while B was isolated; the replicas keep re-sending it
+        assertAtomic("TX-1", false);
+        for (int replica = 0; replica < 3; replica++) {
+            int r = replica;
+            await(() -> coordinator.getRetainedOutcomes(r) == 0);
+        }
+    }
+
+    @Test
+    void everyReplicaCrashed() {
+        for (int replica = 0; replica < 3; replica++) {
+            coordinator.crash(replica);
+        }
+        assertTrue(coordinator.commit("TX-1").isCompletedExceptionally());
+    }
+}